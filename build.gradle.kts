@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.5.6"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.github.superz97"
@@ -14,10 +15,29 @@ java {
     }
 }
 
+// End-to-end throughput against a local GitHub API stub, Postgres and Redis; not part of check
+val loadTest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+    // Shares the recorded events page with the benchmarks
+    resources.srcDir("src/jmh/resources")
+}
+
+sourceSets.test {
+    // Formatter tests check the recorded events page the benchmarks use
+    resources.srcDir("src/jmh/resources")
+}
+
 configurations {
     compileOnly {
         extendsFrom(configurations.annotationProcessor.get())
     }
+    named("loadTestImplementation") {
+        extendsFrom(configurations.testImplementation.get())
+    }
+    named("loadTestRuntimeOnly") {
+        extendsFrom(configurations.testRuntimeOnly.get())
+    }
 }
 
 repositories {
@@ -36,6 +56,13 @@ dependencies {
     implementation("io.lettuce:lettuce-core")
     implementation("com.fasterxml.jackson.core:jackson-databind")
     implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("io.micrometer:micrometer-tracing-bridge-otel")
+    implementation("io.opentelemetry:opentelemetry-exporter-otlp")
+    implementation("io.projectreactor:reactor-core-micrometer")
+    implementation("io.micrometer:micrometer-registry-prometheus")
     compileOnly("org.projectlombok:lombok")
     runtimeOnly("org.postgresql:postgresql")
     annotationProcessor("org.projectlombok:lombok")
@@ -43,6 +70,9 @@ dependencies {
     testImplementation("io.projectreactor:reactor-test")
     testImplementation("org.springframework.shell:spring-shell-starter-test")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    "loadTestImplementation"("org.springframework.boot:spring-boot-testcontainers")
+    "loadTestImplementation"("org.testcontainers:junit-jupiter")
+    "loadTestImplementation"("org.testcontainers:postgresql")
 }
 
 dependencyManagement {
@@ -51,6 +81,27 @@ dependencyManagement {
     }
 }
 
+jmh {
+    jmhVersion = "1.37"
+    profilers = listOf("gc")
+    // One JSON file per version so runs can be compared across releases
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results-${project.version}.json")
+    (findProperty("jmh.includes") as String?)?.let { includes = listOf(it) }
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+tasks.register<Test>("loadTest") {
+    description = "Drives ActivityService with simulated users against a local GitHub API stub."
+    group = "verification"
+    testClassesDirs = loadTest.output.classesDirs
+    classpath = loadTest.runtimeClasspath
+    maxHeapSize = "2g"
+    systemProperties(System.getProperties().filterKeys { it.toString().startsWith("loadtest.") }
+        .mapKeys { it.key.toString() })
+    testLogging.showStandardStreams = true
+    outputs.upToDateWhen { false }
+}
@@ -0,0 +1,48 @@
+package com.github.superz97.githubactivitytracker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+public final class Fixtures {
+
+    public static final String EVENTS_PAGE = "fixtures/events-page.json";
+    public static final int EVENTS_PAGE_SIZE = 100;
+
+    private Fixtures() {
+    }
+
+    public static ObjectMapper objectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper;
+    }
+
+    public static byte[] bytes(String resource) {
+        try (InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture: " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static List<GitHubEvent> events(ObjectMapper mapper, String resource) {
+        try {
+            return mapper.readValue(bytes(resource), mapper.getTypeFactory()
+                    .constructCollectionType(List.class, GitHubEvent.class));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.github.superz97.githubactivitytracker.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.superz97.githubactivitytracker.Fixtures;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+    @Param({"json", "json+gzip", "smile", "smile+gzip"})
+    private String format;
+
+    private CacheEntrySerializer serializer;
+    private CachedActivity entry;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper json = Fixtures.objectMapper();
+        List<CacheCodec> codecs = List.of(
+                new JacksonCacheCodec(JacksonCacheCodec.JSON_ID, "json", json),
+                new JacksonCacheCodec(JacksonCacheCodec.SMILE_ID, "smile", json.copyWith(new SmileFactory())));
+        String codecName = format.replace("+gzip", "");
+        CacheCodec writeCodec = codecs.stream().filter(codec -> codec.name().equals(codecName)).findFirst().orElseThrow();
+        int compressionThreshold = format.endsWith("+gzip") ? 1 : 0;
+        serializer = new CacheEntrySerializer(writeCodec, codecs, compressionThreshold, json);
+        entry = new CachedActivity(Fixtures.events(json, Fixtures.EVENTS_PAGE), Instant.now());
+        encoded = serializer.serialize(entry);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return serializer.serialize(entry);
+    }
+
+    @Benchmark
+    public CachedActivity decode(EntrySize size) throws IOException {
+        size.bytes = encoded.length;
+        return serializer.deserialize(encoded);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EntrySize {
+        public long bytes;
+    }
+
+}
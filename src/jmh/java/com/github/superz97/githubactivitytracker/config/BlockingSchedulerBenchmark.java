@@ -0,0 +1,100 @@
+package com.github.superz97.githubactivitytracker.config;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Each invocation fans out concurrent "user lookups" that hold a pooled connection for a few milliseconds,
+// the way ActivityService offloads JPA calls; peak platform threads are reported alongside throughput
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BlockingSchedulerBenchmark {
+
+    @Param({"boundedElastic", "virtual"})
+    private String scheduler;
+
+    @Param({"100", "500"})
+    private int concurrentLookups;
+
+    @Param({"10", "50"})
+    private int connectionPoolSize;
+
+    @Param({"5"})
+    private int queryMillis;
+
+    private Scheduler blockingScheduler;
+    private Semaphore connectionPool;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        blockingScheduler = "virtual".equals(scheduler)
+                ? SchedulerConfig.createVirtualThreadScheduler()
+                : Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                        Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "bench-elastic");
+        connectionPool = new Semaphore(connectionPoolSize, true);
+        threads.resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        blockingScheduler.dispose();
+    }
+
+    @Benchmark
+    public Long lookups(ThreadUsage usage) {
+        Long completed = Flux.range(0, concurrentLookups)
+                .flatMap(i -> Mono.fromCallable(this::lookup).subscribeOn(blockingScheduler), concurrentLookups)
+                .count()
+                .block();
+        usage.peakPlatformThreads = Math.max(usage.peakPlatformThreads, threads.getPeakThreadCount());
+        return completed;
+    }
+
+    private int lookup() throws InterruptedException {
+        connectionPool.acquire();
+        try {
+            Thread.sleep(queryMillis);
+            return 1;
+        } finally {
+            connectionPool.release();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ThreadUsage {
+        public long peakPlatformThreads;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            peakPlatformThreads = 0;
+            ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.github.superz97.githubactivitytracker.format;
+
+import com.github.superz97.githubactivitytracker.Fixtures;
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Scores are per event of the given type; compare gc.alloc.rate.norm between the streaming and String paths
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventFormatterBenchmark {
+
+    @Param({"PushEvent", "CreateEvent", "IssuesEvent", "PullRequestEvent", "WatchEvent", "ForkEvent", "ReleaseEvent"})
+    private String eventType;
+
+    private EventFormatterRegistry unmemoized;
+    private EventFormatterRegistry memoized;
+    private List<GitHubEvent> events;
+    private final StringBuilder buffer = new StringBuilder(256);
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        unmemoized = EventFormatterRegistry.unmemoized();
+        memoized = EventFormatterRegistry.withDefaults();
+        events = Fixtures.events(Fixtures.objectMapper(), Fixtures.EVENTS_PAGE).stream()
+                .filter(event -> eventType.equals(event.getType()))
+                .toList();
+        if (events.isEmpty()) {
+            throw new IllegalStateException("No " + eventType + " in " + Fixtures.EVENTS_PAGE);
+        }
+        events.forEach(memoized::format);
+    }
+
+    private GitHubEvent nextEvent() {
+        GitHubEvent event = events.get(next);
+        next = next + 1 == events.size() ? 0 : next + 1;
+        return event;
+    }
+
+    @Benchmark
+    public StringBuilder streamIntoBuffer() throws IOException {
+        buffer.setLength(0);
+        unmemoized.formatTo(nextEvent(), buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public String renderString() {
+        return unmemoized.format(nextEvent());
+    }
+
+    @Benchmark
+    public String memoHit() {
+        return memoized.format(nextEvent());
+    }
+
+}
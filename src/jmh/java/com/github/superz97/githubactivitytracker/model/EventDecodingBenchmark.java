@@ -0,0 +1,80 @@
+package com.github.superz97.githubactivitytracker.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.superz97.githubactivitytracker.Fixtures;
+import com.github.superz97.githubactivitytracker.format.EventFormatterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Scores are per event; run with -prof gc (enabled in build.gradle.kts) to compare gc.alloc.rate.norm
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(Fixtures.EVENTS_PAGE_SIZE)
+public class EventDecodingBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectReader typedReader;
+    private ObjectReader mapReader;
+    private EventFormatterRegistry formatterRegistry;
+    private byte[] page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Fixtures.objectMapper();
+        typedReader = objectMapper.readerFor(GitHubEvent.class);
+        mapReader = objectMapper.readerFor(MapPayloadEvent.class);
+        formatterRegistry = EventFormatterRegistry.unmemoized();
+        page = Fixtures.bytes(Fixtures.EVENTS_PAGE);
+    }
+
+    @Benchmark
+    public void typedPayload(Blackhole blackhole) throws IOException {
+        streamElements(typedReader, blackhole);
+    }
+
+    @Benchmark
+    public void mapPayload(Blackhole blackhole) throws IOException {
+        streamElements(mapReader, blackhole);
+    }
+
+    @Benchmark
+    public void typedPayloadFormatted(Blackhole blackhole) throws IOException {
+        try (MappingIterator<GitHubEvent> events = typedReader.readValues(page)) {
+            while (events.hasNext()) {
+                blackhole.consume(formatterRegistry.format(events.next()));
+            }
+        }
+    }
+
+    // Element by element over one parser, the way the WebFlux tokenizer feeds bodyToFlux
+    private void streamElements(ObjectReader reader, Blackhole blackhole) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(page);
+             MappingIterator<Object> events = reader.readValues(parser)) {
+            while (events.hasNext()) {
+                blackhole.consume(events.next());
+            }
+        }
+    }
+
+}
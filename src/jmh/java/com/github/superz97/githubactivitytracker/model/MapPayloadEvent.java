@@ -0,0 +1,23 @@
+package com.github.superz97.githubactivitytracker.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// The event shape before typed payloads: every payload is materialized as nested maps and lists
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MapPayloadEvent {
+
+    public String id;
+    public String type;
+
+    @JsonProperty("created_at")
+    public LocalDateTime createdAt;
+
+    public Actor actor;
+    public Repo repo;
+    public Map<String, Object> payload;
+
+}
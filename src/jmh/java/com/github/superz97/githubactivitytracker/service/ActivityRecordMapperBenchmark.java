@@ -0,0 +1,52 @@
+package com.github.superz97.githubactivitytracker.service;
+
+import com.github.superz97.githubactivitytracker.Fixtures;
+import com.github.superz97.githubactivitytracker.entity.ActivityRecord;
+import com.github.superz97.githubactivitytracker.format.EventFormatterRegistry;
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The per-event work saveToDatabase does before records reach the write-behind queue; scores are per event
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(Fixtures.EVENTS_PAGE_SIZE)
+public class ActivityRecordMapperBenchmark {
+
+    private ActivityRecordMapper mapper;
+    private List<GitHubEvent> events;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Unmemoized so every invocation pays for the description, as a first ingest does
+        mapper = new ActivityRecordMapper(Fixtures.objectMapper(), EventFormatterRegistry.unmemoized());
+        events = Fixtures.events(Fixtures.objectMapper(), Fixtures.EVENTS_PAGE);
+    }
+
+    @Benchmark
+    public void toRecord(Blackhole blackhole) {
+        for (GitHubEvent event : events) {
+            ActivityRecord record = mapper.toRecord("benchmark-user", event);
+            blackhole.consume(record);
+        }
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.github.superz97.githubactivitytracker.shell;
+
+import com.github.superz97.githubactivitytracker.Fixtures;
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import com.github.superz97.githubactivitytracker.repository.ActivityStatsRepository;
+import com.github.superz97.githubactivitytracker.repository.ActivitySummary;
+import com.github.superz97.githubactivitytracker.repository.ActivitySummary.Bucket;
+import com.github.superz97.githubactivitytracker.service.ActivityService;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import reactor.core.scheduler.Schedulers;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// The production summary path with Postgres answered from the recorded events page: summarize is
+// ActivityStatsRepository mapping the hourly stats rows, showSummary is the whole shell command on top of it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SummaryBenchmark {
+
+    private static final String USERNAME = "benchmark-user";
+    private static final int TOP = 5;
+
+    private ActivityStatsRepository statsRepository;
+    private GitHubCommands commands;
+    private LocalDate to;
+    private LocalDate from;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        statsRepository = new ActivityStatsRepository(
+                new FixtureStatsJdbcTemplate(Fixtures.events(Fixtures.objectMapper(), Fixtures.EVENTS_PAGE)));
+        // Only the summary path is exercised, so the collaborators it never touches are left out
+        ActivityService activityService = new ActivityService(null, null, null, null, statsRepository, null, null,
+                null, Schedulers.immediate(), ObservationRegistry.NOOP);
+        commands = new GitHubCommands(activityService, null, null, null, null, null,
+                new CommandObserver(ObservationRegistry.NOOP));
+        to = LocalDate.now();
+        from = to.minusDays(29);
+        String output = showSummary();
+        if (!output.contains("Total events")) {
+            throw new IllegalStateException("Summary benchmark is not rendering a summary:\n" + output);
+        }
+    }
+
+    @Benchmark
+    public ActivitySummary summarize() {
+        return statsRepository.summarize(USERNAME, from, to, TOP);
+    }
+
+    @Benchmark
+    public String showSummary() {
+        return commands.showSummary(USERNAME, null, null);
+    }
+
+    // Answers the four hourly stats queries with the rows Postgres would return for the fixture page, so the
+    // repository's own row mapping runs unchanged
+    private static final class FixtureStatsJdbcTemplate extends JdbcTemplate {
+
+        private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        private static final DateTimeFormatter HOUR = DateTimeFormatter.ofPattern("HH");
+        private static final Comparator<Bucket> BY_TOTAL = Comparator.comparingLong(Bucket::count).reversed();
+
+        private final CachedRowSet byType;
+        private final CachedRowSet byRepository;
+        private final CachedRowSet byDay;
+        private final CachedRowSet byHourOfDay;
+
+        FixtureStatsJdbcTemplate(List<GitHubEvent> events) throws SQLException {
+            List<Bucket> repositories = count(events, event -> event.getRepo().getName(),
+                    BY_TOTAL.thenComparing(Bucket::key));
+            byType = rows(count(events, GitHubEvent::getType, BY_TOTAL.thenComparing(Bucket::key)), 0);
+            byRepository = rows(repositories.subList(0, Math.min(TOP, repositories.size())), repositories.size());
+            List<Bucket> days = count(events, event -> event.getCreatedAt().format(DAY),
+                    BY_TOTAL.thenComparing(Bucket::key, Comparator.reverseOrder()));
+            byDay = rows(days.subList(0, Math.min(TOP, days.size())), 0);
+            byHourOfDay = rows(count(events, event -> event.getCreatedAt().format(HOUR),
+                    Comparator.comparing(Bucket::key)), 0);
+        }
+
+        @Override
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            CachedRowSet rows = sql.contains("event_type AS key") ? byType
+                    : sql.contains("repository_name AS key") ? byRepository
+                    : sql.contains("'YYYY-MM-DD'") ? byDay
+                    : byHourOfDay;
+            try {
+                rows.beforeFirst();
+                List<T> mapped = new ArrayList<>();
+                int rowNum = 0;
+                while (rows.next()) {
+                    mapped.add(rowMapper.mapRow(rows, rowNum++));
+                }
+                return mapped;
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static List<Bucket> count(List<GitHubEvent> events, Function<GitHubEvent, String> key,
+                                          Comparator<Bucket> order) {
+            Map<String, Long> counts = events.stream().collect(Collectors.groupingBy(key, Collectors.counting()));
+            return counts.entrySet().stream()
+                    .map(entry -> new Bucket(entry.getKey(), entry.getValue()))
+                    .sorted(order)
+                    .toList();
+        }
+
+        private static CachedRowSet rows(List<Bucket> buckets, long repositories) throws SQLException {
+            RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+            metaData.setColumnCount(3);
+            column(metaData, 1, "key", Types.VARCHAR);
+            column(metaData, 2, "total", Types.BIGINT);
+            column(metaData, 3, "repositories", Types.BIGINT);
+            CachedRowSet rows = RowSetProvider.newFactory().createCachedRowSet();
+            rows.setMetaData(metaData);
+            for (Bucket bucket : buckets) {
+                rows.moveToInsertRow();
+                rows.updateString(1, bucket.key());
+                rows.updateLong(2, bucket.count());
+                rows.updateLong(3, repositories);
+                rows.insertRow();
+            }
+            rows.moveToCurrentRow();
+            return rows;
+        }
+
+        private static void column(RowSetMetaDataImpl metaData, int index, String name, int type) throws SQLException {
+            metaData.setColumnName(index, name);
+            metaData.setColumnLabel(index, name);
+            metaData.setColumnType(index, type);
+        }
+    }
+
+}
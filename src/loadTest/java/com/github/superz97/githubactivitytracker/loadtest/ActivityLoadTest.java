@@ -0,0 +1,187 @@
+package com.github.superz97.githubactivitytracker.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.superz97.githubactivitytracker.service.ActivityService;
+import com.github.superz97.githubactivitytracker.service.ActivityWriteBehindQueue;
+import com.github.superz97.githubactivitytracker.service.ActivityWriteBehindQueue.WriteBehindStats;
+import com.github.superz97.githubactivitytracker.service.BatchRunner;
+import com.github.superz97.githubactivitytracker.service.BatchRunner.BatchReport;
+import com.github.superz97.githubactivitytracker.service.BatchRunner.BatchResult;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Run with ./gradlew loadTest -Dloadtest.users=5000; stub behaviour is tuned through the loadtest.stub.* properties
+@SpringBootTest(properties = {
+        "spring.shell.interactive.enabled=false",
+        "watchlist.enabled=false",
+        "github.api.token=",
+        "batch.concurrency=${loadtest.concurrency:64}",
+        "batch.user-timeout=60s",
+        "logging.level.com.github.superz97=WARN",
+        "logging.level.org.springframework.web.reactive.function.client=WARN"
+})
+@Testcontainers
+class ActivityLoadTest {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 2000);
+    private static final Path REPORT = Path.of(System.getProperty("loadtest.report", "build/reports/loadtest/report.json"));
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(5);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    @ServiceConnection(name = "redis")
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    static GitHubApiStub gitHubApi = GitHubApiStub.start(GitHubApiStub.Settings.fromSystemProperties());
+
+    @DynamicPropertySource
+    static void gitHubApiProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", gitHubApi::baseUrl);
+    }
+
+    @AfterAll
+    static void stopGitHubApi() {
+        gitHubApi.close();
+    }
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private BatchRunner batchRunner;
+
+    @Autowired
+    private ActivityWriteBehindQueue writeBehindQueue;
+
+    @Test
+    void coldWarmAndConditionalRounds() throws IOException {
+        List<String> users = IntStream.range(0, USERS).mapToObj(i -> "load-user-" + i).toList();
+
+        List<RoundReport> rounds = new ArrayList<>();
+        // Cold: every user misses both cache tiers, pages through the stub and queues its records
+        rounds.add(round("cold", users, false));
+        // Warm: served from the near cache and Redis without touching the API
+        rounds.add(round("warm", users, false));
+        // Refresh: conditional requests that the stub answers with 304 Not Modified
+        rounds.add(round("refresh", users, true));
+
+        rounds.forEach(RoundReport::print);
+        writeReport(rounds);
+
+        RoundReport cold = rounds.get(0);
+        assertThat(cold.report().failures()).isLessThanOrEqualTo(USERS / 100);
+        assertThat(cold.rowsWritten()).isPositive();
+        assertThat(rounds.get(1).report().apiCalls()).isLessThan(cold.report().apiCalls());
+    }
+
+    private RoundReport round(String name, List<String> users, boolean refresh) {
+        BatchRunner.Baseline baseline = batchRunner.baseline().block();
+        GitHubApiStub.StubStats stubBefore = gitHubApi.getStats();
+        long writtenBefore = writeBehindQueue.getStats().written();
+
+        List<BatchResult<Long>> results = batchRunner.run(users,
+                        username -> activityService.getUserActivity(username, refresh).count())
+                .collectList()
+                .block();
+        BatchReport report = batchRunner.report(baseline, results).block();
+        Duration drained = awaitWriteBehindDrained();
+
+        GitHubApiStub.StubStats stubAfter = gitHubApi.getStats();
+        long rowsWritten = writeBehindQueue.getStats().written() - writtenBefore;
+        return new RoundReport(name, report, rowsWritten, report.wallTime().plus(drained),
+                stubAfter.notModified() - stubBefore.notModified(),
+                stubAfter.serverErrors() - stubBefore.serverErrors());
+    }
+
+    // Records reach Postgres asynchronously, so the write rate only counts once the queue is empty again
+    private Duration awaitWriteBehindDrained() {
+        long started = System.nanoTime();
+        long deadline = started + DRAIN_TIMEOUT.toNanos();
+        long lastWritten = -1;
+        while (System.nanoTime() < deadline) {
+            WriteBehindStats stats = writeBehindQueue.getStats();
+            if (stats.queueDepth() == 0 && stats.written() == lastWritten) {
+                break;
+            }
+            lastWritten = stats.written();
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return Duration.ofNanos(System.nanoTime() - started);
+    }
+
+    private void writeReport(List<RoundReport> rounds) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT);
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        objectMapper.writeValue(REPORT.toFile(), rounds);
+        System.out.println("Load test report written to " + REPORT.toAbsolutePath());
+    }
+
+    record RoundReport(String round, BatchReport report, long rowsWritten, Duration writeWindow,
+                       long notModified, long serverErrors) {
+
+        @JsonProperty
+        public double usersPerSecond() {
+            return report.users() / seconds(report.wallTime());
+        }
+
+        @JsonProperty
+        public double cacheHitRatio() {
+            long lookups = report.cacheHits() + report.cacheMisses();
+            return lookups == 0 ? 0 : (double) report.cacheHits() / lookups;
+        }
+
+        @JsonProperty
+        public double rowsPerSecond() {
+            return rowsWritten / seconds(writeWindow);
+        }
+
+        void print() {
+            System.out.println("═".repeat(60));
+            System.out.printf("%-8s %d users, %d failed, %.1f users/s%n",
+                    round, report.users(), report.failures(), usersPerSecond());
+            System.out.printf("  latency p50 %dms, p99 %dms, max %dms%n",
+                    report.p50().toMillis(), report.p99().toMillis(), report.slowest().toMillis());
+            System.out.printf("  cache hit ratio %.1f%%, api calls %d (%d not modified, %d 5xx)%n",
+                    cacheHitRatio() * 100, report.apiCalls(), notModified, serverErrors);
+            System.out.printf("  rows written %d, %.0f rows/s%n", rowsWritten, rowsPerSecond());
+        }
+
+        private static double seconds(Duration duration) {
+            return Math.max(1, duration.toMillis()) / 1000.0;
+        }
+    }
+
+}
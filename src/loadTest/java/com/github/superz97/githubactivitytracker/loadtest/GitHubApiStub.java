@@ -0,0 +1,230 @@
+package com.github.superz97.githubactivitytracker.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.StreamSupport;
+
+// Serves the recorded events page as /users/{u}/events/public for any username, rewriting ids, actor and
+// timestamps so every simulated user has its own feed, plus the ETag, Link and rate-limit headers GitHub sends
+public class GitHubApiStub implements AutoCloseable {
+
+    public static final String MISSING_USER_PREFIX = "missing-";
+
+    private static final String FIXTURE = "fixtures/events-page.json";
+    private static final Duration RATE_LIMIT_WINDOW = Duration.ofHours(1);
+    private static final long ID_BASE = 1_000_000_000_000L;
+    private static final int MAX_EVENTS_PER_USER = 10_000;
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<ObjectNode> recorded;
+    private final Instant newestEventAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    private final Map<String, Long> userNumbers = new ConcurrentHashMap<>();
+    private final AtomicLong nextUserNumber = new AtomicLong();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong serverErrors = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong spentInWindow = new AtomicLong();
+    private volatile Instant windowStart = Instant.now();
+
+    private final DisposableServer server;
+
+    private GitHubApiStub(Settings settings) {
+        this.settings = settings;
+        this.recorded = loadFixture();
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .get("/users/{username}/events/public", this::events)
+                        .get("/users/{username}", this::user))
+                .bindNow();
+    }
+
+    public static GitHubApiStub start(Settings settings) {
+        return new GitHubApiStub(settings);
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    public StubStats getStats() {
+        return new StubStats(requests.get(), notModified.get(), serverErrors.get(), rateLimited.get());
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Mono<Void> events(HttpServerRequest request, HttpServerResponse response) {
+        String username = request.param("username");
+        QueryStringDecoder query = new QueryStringDecoder(request.uri());
+        int page = intParam(query, "page", 1);
+        int perPage = intParam(query, "per_page", 30);
+        return respond(request, response, () -> {
+            int pages = Math.max(1, (settings.eventsPerUser() + perPage - 1) / perPage);
+            String etag = "W/\"" + username + "-" + page + "-" + perPage + "\"";
+            response.header(HttpHeaderNames.ETAG, etag);
+            if (page == 1) {
+                response.header("X-Poll-Interval", "60");
+            }
+            if (etag.equals(request.requestHeaders().get(HttpHeaderNames.IF_NONE_MATCH))) {
+                notModified.incrementAndGet();
+                return response.status(HttpResponseStatus.NOT_MODIFIED).send().then();
+            }
+            if (page < pages) {
+                String path = baseUrl() + "/users/" + username + "/events/public?per_page=" + perPage + "&page=";
+                response.header(HttpHeaderNames.LINK,
+                        "<" + path + (page + 1) + ">; rel=\"next\", <" + path + pages + ">; rel=\"last\"");
+            }
+            return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                    .sendByteArray(Mono.fromCallable(() -> page(username, page, perPage)))
+                    .then();
+        });
+    }
+
+    private Mono<Void> user(HttpServerRequest request, HttpServerResponse response) {
+        String username = request.param("username");
+        return respond(request, response, () -> {
+            ObjectNode user = objectMapper.createObjectNode()
+                    .put("login", username)
+                    .put("id", userNumber(username))
+                    .put("type", "User");
+            return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                    .sendString(Mono.just(user.toString()))
+                    .then();
+        });
+    }
+
+    // Latency, rate-limit headers, 5xx bursts and unknown users apply to every route alike
+    private Mono<Void> respond(HttpServerRequest request, HttpServerResponse response, ResponseWriter writer) {
+        return Mono.delay(latency())
+                .then(Mono.defer(() -> {
+                    long requestNumber = requests.incrementAndGet();
+                    long remaining = spendRateLimit();
+                    response.header("X-RateLimit-Limit", String.valueOf(settings.rateLimit()))
+                            .header("X-RateLimit-Remaining", String.valueOf(Math.max(0, remaining)))
+                            .header("X-RateLimit-Reset", String.valueOf(windowStart.plus(RATE_LIMIT_WINDOW).getEpochSecond()));
+                    if (remaining < 0) {
+                        rateLimited.incrementAndGet();
+                        return response.status(HttpResponseStatus.FORBIDDEN)
+                                .sendString(Mono.just("{\"message\":\"API rate limit exceeded\"}"))
+                                .then();
+                    }
+                    if (settings.errorEvery() > 0 && requestNumber % settings.errorEvery() < settings.errorBurst()) {
+                        serverErrors.incrementAndGet();
+                        return response.status(HttpResponseStatus.BAD_GATEWAY).send().then();
+                    }
+                    if (request.param("username").startsWith(MISSING_USER_PREFIX)) {
+                        return response.status(HttpResponseStatus.NOT_FOUND)
+                                .sendString(Mono.just("{\"message\":\"Not Found\"}"))
+                                .then();
+                    }
+                    return writer.write();
+                }));
+    }
+
+    private byte[] page(String username, int page, int perPage) throws IOException {
+        long userNumber = userNumber(username);
+        int from = (page - 1) * perPage;
+        int to = Math.min(settings.eventsPerUser(), from + perPage);
+        ArrayNode events = objectMapper.createArrayNode();
+        for (int index = from; index < to; index++) {
+            ObjectNode event = recorded.get(index % recorded.size()).deepCopy();
+            // Newest first like the real feed: the largest id sits at index 0, so the high-water mark compares correctly
+            event.put("id", String.valueOf(ID_BASE + userNumber * MAX_EVENTS_PER_USER + (MAX_EVENTS_PER_USER - 1 - index)));
+            event.put("created_at", newestEventAt.minus(index, ChronoUnit.MINUTES).toString());
+            ((ObjectNode) event.get("actor")).put("login", username).put("display_login", username);
+            events.add(event);
+        }
+        return objectMapper.writeValueAsBytes(events);
+    }
+
+    private long userNumber(String username) {
+        return userNumbers.computeIfAbsent(username, name -> nextUserNumber.incrementAndGet());
+    }
+
+    private synchronized long spendRateLimit() {
+        Instant now = Instant.now();
+        if (now.isAfter(windowStart.plus(RATE_LIMIT_WINDOW))) {
+            windowStart = now;
+            spentInWindow.set(0);
+        }
+        return settings.rateLimit() - spentInWindow.incrementAndGet();
+    }
+
+    private Duration latency() {
+        long jitter = settings.latencyJitterMillis() > 0
+                ? ThreadLocalRandom.current().nextLong(settings.latencyJitterMillis() + 1)
+                : 0;
+        return Duration.ofMillis(settings.latencyMillis() + jitter);
+    }
+
+    private static int intParam(QueryStringDecoder query, String name, int defaultValue) {
+        List<String> values = query.parameters().get(name);
+        return values == null || values.isEmpty() ? defaultValue : Integer.parseInt(values.get(0));
+    }
+
+    private List<ObjectNode> loadFixture() {
+        try (InputStream in = GitHubApiStub.class.getClassLoader().getResourceAsStream(FIXTURE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture: " + FIXTURE);
+            }
+            ArrayNode page = (ArrayNode) objectMapper.readTree(in);
+            return StreamSupport.stream(page.spliterator(), false)
+                    .map(ObjectNode.class::cast)
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResponseWriter {
+        Mono<Void> write();
+    }
+
+    // errorEvery = 0 disables failures; otherwise the first errorBurst of every errorEvery requests get a 502
+    public record Settings(long latencyMillis, long latencyJitterMillis, int eventsPerUser,
+                           long rateLimit, int errorEvery, int errorBurst) {
+
+        public static Settings fromSystemProperties() {
+            return new Settings(
+                    Long.getLong("loadtest.stub.latency-ms", 40),
+                    Long.getLong("loadtest.stub.latency-jitter-ms", 40),
+                    Math.min(MAX_EVENTS_PER_USER, Integer.getInteger("loadtest.stub.events-per-user", 300)),
+                    Long.getLong("loadtest.stub.rate-limit", 1_000_000),
+                    Integer.getInteger("loadtest.stub.error-every", 500),
+                    Integer.getInteger("loadtest.stub.error-burst", 3));
+        }
+    }
+
+    public record StubStats(long requests, long notModified, long serverErrors, long rateLimited) {
+    }
+
+}
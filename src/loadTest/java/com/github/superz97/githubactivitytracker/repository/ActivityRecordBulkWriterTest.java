@@ -0,0 +1,130 @@
+package com.github.superz97.githubactivitytracker.repository;
+
+import com.github.superz97.githubactivitytracker.entity.ActivityRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs with ./gradlew loadTest against a real Postgres, since the upsert and counter CTEs are what is under test
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class ActivityRecordBulkWriterTest {
+
+    private static final String USERNAME = "bulk-writer-user";
+    private static final LocalDateTime EVENT_TIME = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(2);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void duplicateIdsWithinOneWriteAreWrittenOnce() {
+        for (boolean updateExisting : List.of(false, true)) {
+            jdbcTemplate.update("DELETE FROM activity_records WHERE username = ?", USERNAME);
+            jdbcTemplate.update("DELETE FROM activity_hourly_stats WHERE username = ?", USERNAME);
+
+            BulkWriteResult result = writer(updateExisting, 500)
+                    .write(List.of(record("1", "first copy"), record("2", "other"), record("1", "second copy")));
+
+            assertThat(result).isEqualTo(new BulkWriteResult(2, 0, 1));
+            assertThat(description("1")).isEqualTo("second copy");
+            assertThat(storedRows()).isEqualTo(2);
+            assertThat(countedEvents()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void duplicateIdsAcrossChunksOfOneWriteAreWrittenOnce() {
+        BulkWriteResult result = writer(true, 2)
+                .write(List.of(record("1", "a"), record("2", "b"), record("1", "c"), record("3", "d")));
+
+        assertThat(result).isEqualTo(new BulkWriteResult(3, 0, 1));
+        assertThat(storedRows()).isEqualTo(3);
+        assertThat(countedEvents()).isEqualTo(3);
+    }
+
+    @Test
+    void resentEventIsSkippedWithoutTouchingTheRow() {
+        ActivityRecordBulkWriter writer = writer(false, 2);
+        writer.write(List.of(record("1", "original"), record("2", "original")));
+
+        BulkWriteResult result = writer.write(List.of(record("2", "changed"), record("3", "new")));
+
+        assertThat(result).isEqualTo(new BulkWriteResult(1, 0, 1));
+        assertThat(description("2")).isEqualTo("original");
+        assertThat(storedRows()).isEqualTo(3);
+        assertThat(countedEvents()).isEqualTo(3);
+        assertThat(eventTypes()).isEqualTo(1);
+    }
+
+    @Test
+    void resentEventIsUpdatedWithoutCountingItAgain() {
+        ActivityRecordBulkWriter writer = writer(true, 2);
+        writer.write(List.of(record("1", "original"), record("2", "original")));
+
+        BulkWriteResult result = writer.write(List.of(record("2", "changed"), record("3", "new")));
+
+        assertThat(result).isEqualTo(new BulkWriteResult(1, 1, 0));
+        assertThat(description("2")).isEqualTo("changed");
+        assertThat(storedRows()).isEqualTo(3);
+        assertThat(countedEvents()).isEqualTo(3);
+        assertThat(eventTypes()).isEqualTo(1);
+    }
+
+    private ActivityRecordBulkWriter writer(boolean updateExisting, int batchSize) {
+        ActivityRecordBulkWriter writer = new ActivityRecordBulkWriter(jdbcTemplate);
+        ReflectionTestUtils.setField(writer, "updateExisting", updateExisting);
+        ReflectionTestUtils.setField(writer, "batchSize", batchSize);
+        return writer;
+    }
+
+    private int storedRows() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM activity_records WHERE username = ?",
+                Integer.class, USERNAME);
+    }
+
+    private long countedEvents() {
+        return jdbcTemplate.queryForObject("SELECT coalesce(sum(event_count), 0) FROM activity_hourly_stats WHERE username = ?",
+                Long.class, USERNAME);
+    }
+
+    private int eventTypes() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM activity_event_types WHERE username = ?",
+                Integer.class, USERNAME);
+    }
+
+    private String description(String eventId) {
+        return jdbcTemplate.queryForObject("SELECT description FROM activity_records WHERE event_id = ?",
+                String.class, eventId);
+    }
+
+    private static ActivityRecord record(String eventId, String description) {
+        ActivityRecord record = new ActivityRecord();
+        record.setEventId(eventId);
+        record.setUsername(USERNAME);
+        record.setEventType("PushEvent");
+        record.setRepositoryName("octocat/Hello-World");
+        record.setDescription(description);
+        record.setEventTime(EVENT_TIME);
+        record.setFetchedAt(LocalDateTime.now());
+        return record;
+    }
+
+}
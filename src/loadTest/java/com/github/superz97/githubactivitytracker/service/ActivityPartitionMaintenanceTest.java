@@ -0,0 +1,140 @@
+package com.github.superz97.githubactivitytracker.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs with ./gradlew loadTest against a real Postgres; each test rolls back, partitions included
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class ActivityPartitionMaintenanceTest {
+
+    private static final String USERNAME = "partition-user";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ActivityPartitionMaintenance maintenance;
+
+    @BeforeEach
+    void setUp() {
+        maintenance = new ActivityPartitionMaintenance(jdbcTemplate, new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(maintenance, "monthsAhead", 1);
+        ReflectionTestUtils.setField(maintenance, "retentionMonths", 24);
+        ReflectionTestUtils.setField(maintenance, "retentionMode", "drop");
+    }
+
+    @Test
+    void rowsInTheDefaultPartitionMoveIntoTheNewMonthlyPartition() {
+        YearMonth month = YearMonth.now().minusMonths(2);
+        insert("1", month.atDay(3).atTime(10, 0));
+        insert("2", month.atEndOfMonth().atTime(23, 59));
+        assertThat(rows("activity_records_default")).isEqualTo(2);
+
+        maintenance.maintain();
+
+        assertThat(rows(partition(month))).isEqualTo(2);
+        assertThat(rows("activity_records_default")).isZero();
+        assertThat(rows("activity_records")).isEqualTo(2);
+    }
+
+    @Test
+    void expiredPartitionIsRolledUpBeforeItIsDropped() {
+        YearMonth expired = YearMonth.now().minusMonths(3);
+        maintenance.maintain();
+        insert("1", expired.atDay(5).atTime(9, 0));
+        insert("2", expired.atDay(5).atTime(17, 0));
+        insert("3", expired.atDay(6).atTime(12, 0));
+        payload("1");
+        assertThat(rows(partition(expired))).isEqualTo(3);
+
+        ReflectionTestUtils.setField(maintenance, "retentionMonths", 2);
+        maintenance.maintain();
+
+        assertThat(partitionExists(partition(expired))).isFalse();
+        assertThat(rolledUp(expired.atDay(5).toString())).isEqualTo(2);
+        assertThat(rolledUp(expired.atDay(6).toString())).isEqualTo(1);
+        assertThat(rows("activity_payloads")).isZero();
+    }
+
+    @Test
+    void expiredRowsInTheDefaultPartitionAreRolledUpAndRemoved() {
+        LocalDateTime longAgo = YearMonth.now().minusYears(5).atDay(1).atTime(8, 0);
+        insert("1", longAgo);
+        insert("2", longAgo.plusHours(1));
+
+        maintenance.maintain();
+
+        assertThat(rows("activity_records_default")).isZero();
+        assertThat(rolledUp(longAgo.toLocalDate().toString())).isEqualTo(2);
+    }
+
+    @Test
+    void secondRunFindsNothingLeftToDo() {
+        YearMonth expired = YearMonth.now().minusMonths(3);
+        maintenance.maintain();
+        insert("1", expired.atDay(5).atTime(9, 0));
+        ReflectionTestUtils.setField(maintenance, "retentionMonths", 2);
+
+        maintenance.maintain();
+        maintenance.maintain();
+
+        assertThat(rolledUp(expired.atDay(5).toString())).isEqualTo(1);
+    }
+
+    private void insert(String eventId, LocalDateTime eventTime) {
+        jdbcTemplate.update("""
+                INSERT INTO activity_records (event_id, username, event_type, repository_name, description,
+                                              event_time, fetched_at)
+                VALUES (?, ?, 'PushEvent', 'octocat/Hello-World', 'pushed', ?, now())""",
+                eventId, USERNAME, eventTime);
+    }
+
+    private void payload(String eventId) {
+        jdbcTemplate.update("INSERT INTO activity_payloads (event_id, payload) VALUES (?, '{}'::jsonb)", eventId);
+    }
+
+    private int rows(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Integer.class);
+    }
+
+    private long rolledUp(String day) {
+        return jdbcTemplate.queryForObject("""
+                SELECT coalesce(sum(event_count), 0) FROM activity_daily_rollups
+                WHERE username = ? AND day = ?::date""", Long.class, USERNAME, day);
+    }
+
+    private boolean partitionExists(String partition) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition);
+    }
+
+    private static String partition(YearMonth month) {
+        return "activity_records_" + month.format(SUFFIX);
+    }
+
+}
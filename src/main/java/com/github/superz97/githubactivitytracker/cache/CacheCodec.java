@@ -0,0 +1,16 @@
+package com.github.superz97.githubactivitytracker.cache;
+
+
+import java.io.IOException;
+
+public interface CacheCodec {
+
+    byte id();
+
+    String name();
+
+    byte[] encode(CachedActivity entry) throws IOException;
+
+    CachedActivity decode(byte[] data, int offset, int length) throws IOException;
+
+}
@@ -0,0 +1,102 @@
+package com.github.superz97.githubactivitytracker.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class CacheEntrySerializer {
+
+    // Framed entries are [magic, version, codec id, flags, body...]; bare JSON text is the pre-framing format
+    private static final byte MAGIC = (byte) 0xC7;
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte FLAG_GZIP = 0x01;
+    private static final int HEADER_LENGTH = 4;
+    private static final TypeReference<List<GitHubEvent>> LEGACY_ENTRY_TYPE = new TypeReference<>() {};
+
+    private final CacheCodec writeCodec;
+    private final Map<Byte, CacheCodec> codecs;
+    private final int compressionThreshold;
+    private final ObjectMapper legacyMapper;
+
+    public CacheEntrySerializer(CacheCodec writeCodec, List<CacheCodec> codecs,
+                                int compressionThreshold, ObjectMapper legacyMapper) {
+        this.writeCodec = writeCodec;
+        this.codecs = codecs.stream().collect(Collectors.toMap(CacheCodec::id, Function.identity()));
+        this.compressionThreshold = compressionThreshold;
+        this.legacyMapper = legacyMapper;
+    }
+
+    public byte[] serialize(CachedActivity entry) throws IOException {
+        byte[] body = writeCodec.encode(entry);
+        byte flags = 0;
+        if (compressionThreshold > 0 && body.length >= compressionThreshold) {
+            body = gzip(body);
+            flags |= FLAG_GZIP;
+        }
+        byte[] framed = new byte[HEADER_LENGTH + body.length];
+        framed[0] = MAGIC;
+        framed[1] = FORMAT_VERSION;
+        framed[2] = writeCodec.id();
+        framed[3] = flags;
+        System.arraycopy(body, 0, framed, HEADER_LENGTH, body.length);
+        return framed;
+    }
+
+    public CachedActivity deserialize(byte[] data) throws IOException {
+        if (data.length == 0) {
+            return null;
+        }
+        if (data[0] == '[') {
+            return new CachedActivity(legacyMapper.readValue(data, LEGACY_ENTRY_TYPE), Instant.EPOCH);
+        }
+        if (data[0] == '{') {
+            return legacyMapper.readValue(data, CachedActivity.class);
+        }
+        if (data.length < HEADER_LENGTH || data[0] != MAGIC) {
+            throw new IOException("Unrecognised cache entry header");
+        }
+        if (data[1] != FORMAT_VERSION) {
+            throw new IOException("Unsupported cache entry version: " + data[1]);
+        }
+        CacheCodec codec = codecs.get(data[2]);
+        if (codec == null) {
+            throw new IOException("Unknown cache codec id: " + data[2]);
+        }
+        if ((data[3] & FLAG_GZIP) != 0) {
+            byte[] body = gunzip(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+            return codec.decode(body, 0, body.length);
+        }
+        return codec.decode(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+    }
+
+    public String getCodecName() {
+        return writeCodec.name();
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data, int offset, int length) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data, offset, length))) {
+            return in.readAllBytes();
+        }
+    }
+
+}
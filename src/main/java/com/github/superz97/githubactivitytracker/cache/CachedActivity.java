@@ -0,0 +1,9 @@
+package com.github.superz97.githubactivitytracker.cache;
+
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+
+import java.time.Instant;
+import java.util.List;
+
+public record CachedActivity(List<GitHubEvent> events, Instant cachedAt) {
+}
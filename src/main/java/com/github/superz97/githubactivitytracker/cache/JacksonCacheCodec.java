@@ -0,0 +1,46 @@
+package com.github.superz97.githubactivitytracker.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+
+public class JacksonCacheCodec implements CacheCodec {
+
+    public static final byte JSON_ID = 1;
+    public static final byte SMILE_ID = 2;
+
+    private final byte id;
+    private final String name;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    public JacksonCacheCodec(byte id, String name, ObjectMapper mapper) {
+        this.id = id;
+        this.name = name;
+        this.reader = mapper.readerFor(CachedActivity.class);
+        this.writer = mapper.writerFor(CachedActivity.class);
+    }
+
+    @Override
+    public byte id() {
+        return id;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte[] encode(CachedActivity entry) throws IOException {
+        return writer.writeValueAsBytes(entry);
+    }
+
+    @Override
+    public CachedActivity decode(byte[] data, int offset, int length) throws IOException {
+        return reader.readValue(data, offset, length);
+    }
+
+}
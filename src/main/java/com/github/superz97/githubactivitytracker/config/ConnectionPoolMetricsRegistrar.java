@@ -0,0 +1,68 @@
+package com.github.superz97.githubactivitytracker.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+@Component
+@RequiredArgsConstructor
+public class ConnectionPoolMetricsRegistrar implements ConnectionProvider.MeterRegistrar {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RegisteredPool> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        Tags tags = Tags.of("pool", poolName, "remote.address", remoteAddress.toString());
+        List<Meter> meters = List.of(
+                gauge("github.pool.connections.active", tags, metrics, ConnectionPoolMetrics::acquiredSize),
+                gauge("github.pool.connections.idle", tags, metrics, ConnectionPoolMetrics::idleSize),
+                gauge("github.pool.pending.acquires", tags, metrics, ConnectionPoolMetrics::pendingAcquireSize),
+                gauge("github.pool.connections.max", tags, metrics, ConnectionPoolMetrics::maxAllocatedSize));
+        pools.put(id, new RegisteredPool(poolName, remoteAddress.toString(), metrics, meters));
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        RegisteredPool pool = pools.remove(id);
+        if (pool != null) {
+            pool.meters().forEach(meterRegistry::remove);
+        }
+    }
+
+    private Meter gauge(String name, Tags tags, ConnectionPoolMetrics metrics, ToDoubleFunction<ConnectionPoolMetrics> value) {
+        return Gauge.builder(name, metrics, value).tags(tags).register(meterRegistry);
+    }
+
+    public List<PoolStats> snapshot() {
+        return pools.values().stream()
+                .map(pool -> new PoolStats(
+                        pool.name(),
+                        pool.remoteAddress(),
+                        pool.metrics().acquiredSize(),
+                        pool.metrics().idleSize(),
+                        pool.metrics().pendingAcquireSize(),
+                        pool.metrics().allocatedSize(),
+                        pool.metrics().maxAllocatedSize()))
+                .toList();
+    }
+
+    public record PoolStats(String name, String remoteAddress, int active, int idle,
+                            int pendingAcquires, int allocated, int maxConnections) {
+    }
+
+    private record RegisteredPool(String name, String remoteAddress, ConnectionPoolMetrics metrics, List<Meter> meters) {
+    }
+
+}
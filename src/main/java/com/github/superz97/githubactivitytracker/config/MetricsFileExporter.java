@@ -0,0 +1,55 @@
+package com.github.superz97.githubactivitytracker.config;
+
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MetricsFileExporter {
+
+    // Absent when Prometheus export is disabled, as it is in tests
+    private final ObjectProvider<PrometheusMeterRegistry> prometheusMeterRegistry;
+
+    @Value("${metrics.dump.file:}")
+    private String dumpFile;
+
+    @Scheduled(fixedDelayString = "${metrics.dump.interval:30s}", initialDelayString = "${metrics.dump.interval:30s}")
+    public void dump() {
+        PrometheusMeterRegistry registry = prometheusMeterRegistry.getIfAvailable();
+        if (dumpFile.isBlank() || registry == null) {
+            return;
+        }
+        Path target = Path.of(dumpFile);
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            // Written aside and moved into place so a scraper tailing the file never reads half a dump
+            Path partial = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.writeString(partial, registry.scrape(), StandardCharsets.UTF_8);
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write metrics to {}: {}", target, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void finalDump() {
+        dump();
+    }
+
+}
@@ -2,18 +2,32 @@ package com.github.superz97.githubactivitytracker.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.superz97.githubactivitytracker.cache.CacheCodec;
+import com.github.superz97.githubactivitytracker.cache.CacheEntrySerializer;
+import com.github.superz97.githubactivitytracker.cache.JacksonCacheCodec;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.List;
+
 @Configuration
 public class RedisConfig {
 
+    @Value("${cache.activity.codec:smile}")
+    private String cacheCodec;
+
+    @Value("${cache.activity.compression-threshold:4096}")
+    private int compressionThreshold;
+
     @Bean
     @Primary
     public ReactiveRedisTemplate<String, String> reactiveRedisTemplate(
@@ -29,6 +43,29 @@ public class RedisConfig {
         return new ReactiveRedisTemplate<>(connectionFactory, context);
     }
 
+    @Bean
+    public ReactiveRedisTemplate<String, byte[]> binaryRedisTemplate(
+            ReactiveRedisConnectionFactory connectionFactory) {
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(RedisSerializer.byteArray())
+                .key(RedisSerializer.string())
+                .value(RedisSerializer.byteArray())
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+
+    @Bean
+    public CacheEntrySerializer cacheEntrySerializer(ObjectMapper objectMapper) {
+        List<CacheCodec> codecs = List.of(
+                new JacksonCacheCodec(JacksonCacheCodec.JSON_ID, "json", objectMapper),
+                new JacksonCacheCodec(JacksonCacheCodec.SMILE_ID, "smile", objectMapper.copyWith(new SmileFactory())));
+        CacheCodec writeCodec = codecs.stream()
+                .filter(codec -> codec.name().equalsIgnoreCase(cacheCodec))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown cache codec: " + cacheCodec));
+        return new CacheEntrySerializer(writeCodec, codecs, compressionThreshold, objectMapper);
+    }
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -0,0 +1,47 @@
+package com.github.superz97.githubactivitytracker.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+@Slf4j
+public class SchedulerConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private Scheduler virtualThreadScheduler;
+
+    // Blocking JDBC/JPA work is offloaded here; the shared boundedElastic scheduler must not be disposed with the context
+    @Bean(destroyMethod = "")
+    public Scheduler blockingScheduler() {
+        if (virtualThreads) {
+            log.info("Running blocking repository work on virtual threads");
+            virtualThreadScheduler = createVirtualThreadScheduler();
+            return virtualThreadScheduler;
+        }
+        return Schedulers.boundedElastic();
+    }
+
+    // Only the scheduler created here is ours to dispose
+    @PreDestroy
+    void disposeVirtualThreadScheduler() {
+        if (virtualThreadScheduler != null) {
+            virtualThreadScheduler.dispose();
+        }
+    }
+
+    public static Scheduler createVirtualThreadScheduler() {
+        return Schedulers.fromExecutorService(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("blocking-vt-", 0).factory()),
+                "blocking-virtual");
+    }
+
+}
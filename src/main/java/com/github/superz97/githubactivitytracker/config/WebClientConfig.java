@@ -1,15 +1,22 @@
 package com.github.superz97.githubactivitytracker.config;
 
+import com.github.superz97.githubactivitytracker.service.GitHubRequestScheduler;
+import io.micrometer.observation.ObservationRegistry;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
@@ -26,22 +33,83 @@ public class WebClientConfig {
     @Value("${webclient.timeout.write:5000}")
     private int writeTimeout;
 
+    @Value("${webclient.pool.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${webclient.pool.pending-acquire-timeout:45s}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${webclient.pool.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    @Value("${webclient.pool.max-life-time:5m}")
+    private Duration maxLifeTime;
+
+    @Value("${webclient.pool.evict-in-background:60s}")
+    private Duration evictInBackground;
+
+    @Value("${webclient.http2.enabled:true}")
+    private boolean http2Enabled;
+
+    @Value("${webclient.compression.enabled:true}")
+    private boolean compressionEnabled;
+
+    @Value("${webclient.codec.max-event-size:1MB}")
+    private DataSize maxEventSize;
+
+    @Value("${github.api.base-url:https://api.github.com}")
+    private String githubApiBaseUrl;
+
+    @Value("${github.api.token:}")
+    private String githubToken;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider gitHubConnectionProvider(ConnectionPoolMetricsRegistrar metricsRegistrar) {
+        return ConnectionProvider.builder("github")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInBackground)
+                .metrics(true, () -> metricsRegistrar)
+                .build();
+    }
+
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        HttpClient httpClient = HttpClient.create()
+    public WebClient gitHubWebClient(ConnectionProvider gitHubConnectionProvider,
+                                     GitHubRequestScheduler requestScheduler,
+                                     ObservationRegistry observationRegistry) {
+        HttpClient httpClient = HttpClient.create(gitHubConnectionProvider)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectionTimeout)
                 .responseTimeout(Duration.ofMillis(readTimeout))
+                .compress(compressionEnabled)
                 .doOnConnected(conn ->
                         conn.addHandlerLast(new ReadTimeoutHandler(readTimeout, TimeUnit.MILLISECONDS))
                                 .addHandlerLast(new WriteTimeoutHandler(writeTimeout, TimeUnit.MILLISECONDS)));
+        // HTTP/2 is negotiated through ALPN, so it is only offered on TLS connections
+        if (http2Enabled && githubApiBaseUrl.startsWith("https")) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
 
+        // bodyToFlux tokenizes the array and decodes one event at a time, so the limit only has to fit a single event
         ExchangeStrategies strategies = ExchangeStrategies.builder()
-                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(10 * 1024 * 1024)) // 10MB
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxEventSize.toBytes()))
                 .build();
 
         return WebClient.builder()
+                .baseUrl(githubApiBaseUrl)
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeaders(headers -> {
+                    if (!githubToken.isEmpty()) {
+                        headers.setBearerAuth(githubToken);
+                    }
+                })
+                .filter(requestScheduler)
                 .exchangeStrategies(strategies)
-                .clientConnector(new ReactorClientHttpConnector(httpClient));
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                // http.client.requests, tagged by uri template and status, plus a span per request
+                .observationRegistry(observationRegistry)
+                .build();
     }
 
 }
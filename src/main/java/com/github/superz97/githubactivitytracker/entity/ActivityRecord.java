@@ -1,9 +1,11 @@
 package com.github.superz97.githubactivitytracker.entity;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -34,7 +36,9 @@ public class ActivityRecord {
     @Column(nullable = false)
     private LocalDateTime fetchedAt;
 
-    @Column(columnDefinition = "TEXT")
-    private String rawPayload;
+    // The typed summary the tracker parsed, not GitHub's original payload; the alias reads older spill files
+    @Transient
+    @JsonAlias("rawPayload")
+    private String summaryPayload;
 
 }
@@ -0,0 +1,28 @@
+package com.github.superz97.githubactivitytracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "activity_ingest_marks")
+@Data
+public class IngestMark {
+
+    @Id
+    private String username;
+
+    @Column(nullable = false)
+    private String eventId;
+
+    @Column(nullable = false)
+    private LocalDateTime eventTime;
+
+    @Column(nullable = false)
+    private LocalDateTime completedAt;
+
+}
@@ -0,0 +1,35 @@
+package com.github.superz97.githubactivitytracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "watched_users")
+@Data
+public class WatchedUser {
+
+    @Id
+    private String username;
+
+    @Column(nullable = false)
+    private LocalDateTime addedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime nextPollAt;
+
+    @Column(nullable = false)
+    private long pollIntervalSeconds;
+
+    @Column(nullable = false)
+    private int quietPolls;
+
+    private LocalDateTime lastPolledAt;
+
+    private LocalDateTime lastActivityAt;
+
+}
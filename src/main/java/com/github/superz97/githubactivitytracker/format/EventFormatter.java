@@ -0,0 +1,16 @@
+package com.github.superz97.githubactivitytracker.format;
+
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+
+import java.io.IOException;
+import java.util.Set;
+
+// Declare a Spring bean implementing this to add or override the description of an event type
+public interface EventFormatter {
+
+    Set<String> eventTypes();
+
+    // Writes what happened, e.g. "pushed 2 commit(s) to owner/repo"; the time and actor prefix is written by the registry
+    void describe(GitHubEvent event, Appendable out) throws IOException;
+
+}
@@ -0,0 +1,144 @@
+package com.github.superz97.githubactivitytracker.format;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Component
+public class EventFormatterRegistry {
+
+    private static final EventFormatter FALLBACK = new EventFormatter() {
+        @Override
+        public Set<String> eventTypes() {
+            return Set.of();
+        }
+
+        @Override
+        public void describe(GitHubEvent event, Appendable out) throws IOException {
+            out.append("performed ").append(event.getType()).append(" on ").append(Formatting.repoName(event));
+        }
+    };
+
+    private final Map<String, EventFormatter> formatters = new HashMap<>();
+    private final Cache<String, String> memo;
+
+    @Autowired
+    public EventFormatterRegistry(ObjectProvider<EventFormatter> customFormatters,
+                                  @Value("${formatting.memo.max-size:50000}") long memoSize) {
+        this(customFormatters.orderedStream(), memoSize);
+    }
+
+    private EventFormatterRegistry(Stream<EventFormatter> customFormatters, long memoSize) {
+        // Custom beans are registered after the built-ins so they can replace them
+        Stream.concat(builtIns().stream(), customFormatters)
+                .forEach(formatter -> formatter.eventTypes().forEach(type -> formatters.put(type, formatter)));
+        memo = memoSize > 0 ? Caffeine.newBuilder().maximumSize(memoSize).<String, String>build() : null;
+    }
+
+    public static EventFormatterRegistry withDefaults() {
+        return new EventFormatterRegistry(Stream.empty(), 50_000);
+    }
+
+    public static EventFormatterRegistry unmemoized() {
+        return new EventFormatterRegistry(Stream.empty(), 0);
+    }
+
+    private static List<EventFormatter> builtIns() {
+        return List.of(new PushFormatter(), new RefFormatter(), new IssueFormatter(),
+                new PullRequestFormatter(), new RepositoryFormatter());
+    }
+
+    // Events are immutable once fetched, so the description is computed once per event id
+    public String format(GitHubEvent event) {
+        if (event.getFormatted() != null) {
+            return event.getFormatted();
+        }
+        if (memo == null || event.getId() == null) {
+            return render(event);
+        }
+        return memo.get(event.getId(), id -> render(event));
+    }
+
+    // Always renders straight into the caller's buffer; on a memo miss the memoized text is taken from what was
+    // written rather than rendered into a String first and copied over
+    public void formatTo(GitHubEvent event, Appendable out) throws IOException {
+        if (event.getFormatted() != null) {
+            out.append(event.getFormatted());
+            return;
+        }
+        if (memo == null || event.getId() == null) {
+            renderTo(event, out);
+            return;
+        }
+        String cached = memo.getIfPresent(event.getId());
+        if (cached != null) {
+            out.append(cached);
+        } else if (out instanceof StringBuilder buffer) {
+            int start = buffer.length();
+            renderTo(event, buffer);
+            memo.put(event.getId(), buffer.substring(start));
+        } else {
+            // A Writer can't be read back, so what is written to it is captured on the way through
+            StringBuilder captured = new StringBuilder(96);
+            renderTo(event, new Tee(out, captured));
+            memo.put(event.getId(), captured.toString());
+        }
+    }
+
+    public void describe(GitHubEvent event, Appendable out) throws IOException {
+        formatters.getOrDefault(event.getType(), FALLBACK).describe(event, out);
+    }
+
+    private String render(GitHubEvent event) {
+        StringBuilder out = new StringBuilder(96);
+        try {
+            renderTo(event, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    private void renderTo(GitHubEvent event, Appendable out) throws IOException {
+        out.append('[').append(String.valueOf(event.getCreatedAt())).append("] ")
+                .append(event.getActor() != null ? event.getActor().getLogin() : "someone").append(' ');
+        describe(event, out);
+    }
+
+    private record Tee(Appendable out, StringBuilder copy) implements Appendable {
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            out.append(csq);
+            copy.append(csq);
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            out.append(csq, start, end);
+            copy.append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            out.append(c);
+            copy.append(c);
+            return this;
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.github.superz97.githubactivitytracker.format;
+
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import com.github.superz97.githubactivitytracker.model.payload.TitledRef;
+
+import java.io.IOException;
+
+final class Formatting {
+
+    private Formatting() {
+    }
+
+    static String repoName(GitHubEvent event) {
+        return event.getRepo() != null ? event.getRepo().getName() : "unknown repository";
+    }
+
+    static String orDefault(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+
+    static void appendQuoted(Appendable out, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            out.append(" '").append(value).append('\'');
+        }
+    }
+
+    static void appendTitle(Appendable out, TitledRef ref) throws IOException {
+        if (ref != null) {
+            appendQuoted(out, ref.getTitle());
+        }
+    }
+
+}
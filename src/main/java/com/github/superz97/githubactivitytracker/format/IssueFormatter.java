@@ -0,0 +1,30 @@
+package com.github.superz97.githubactivitytracker.format;
+
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import com.github.superz97.githubactivitytracker.model.payload.IssuePayload;
+
+import java.io.IOException;
+import java.util.Set;
+
+class IssueFormatter implements EventFormatter {
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of("IssuesEvent", "IssueCommentEvent");
+    }
+
+    @Override
+    public void describe(GitHubEvent event, Appendable out) throws IOException {
+        IssuePayload issue = event.getPayload() instanceof IssuePayload payload ? payload : null;
+        String action = issue != null ? issue.getAction() : null;
+        if ("IssueCommentEvent".equals(event.getType())) {
+            out.append(action != null && !action.equals("created") ? action : "commented on");
+        } else {
+            out.append(Formatting.orDefault(action, "modified"));
+        }
+        out.append(" an issue");
+        Formatting.appendTitle(out, issue != null ? issue.getIssue() : null);
+        out.append(" in ").append(Formatting.repoName(event));
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.github.superz97.githubactivitytracker.format;
+
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import com.github.superz97.githubactivitytracker.model.payload.ActionPayload;
+import com.github.superz97.githubactivitytracker.model.payload.PullRequestPayload;
+
+import java.io.IOException;
+import java.util.Set;
+
+class PullRequestFormatter implements EventFormatter {
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of("PullRequestEvent", "PullRequestReviewEvent", "PullRequestReviewCommentEvent");
+    }
+
+    @Override
+    public void describe(GitHubEvent event, Appendable out) throws IOException {
+        switch (event.getType()) {
+            case "PullRequestReviewEvent" -> {
+                String action = event.getPayload() instanceof ActionPayload review ? review.getAction() : null;
+                out.append(Formatting.orDefault(action, "reviewed")).append(" a pull request in ");
+            }
+            case "PullRequestReviewCommentEvent" -> out.append("commented on a pull request review in ");
+            default -> {
+                PullRequestPayload pr = event.getPayload() instanceof PullRequestPayload payload ? payload : null;
+                out.append(Formatting.orDefault(pr != null ? pr.getAction() : null, "modified")).append(" a pull request");
+                Formatting.appendTitle(out, pr != null ? pr.getPullRequest() : null);
+                out.append(" in ");
+            }
+        }
+        out.append(Formatting.repoName(event));
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.github.superz97.githubactivitytracker.format;
+
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import com.github.superz97.githubactivitytracker.model.payload.PushPayload;
+
+import java.io.IOException;
+import java.util.Set;
+
+class PushFormatter implements EventFormatter {
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of("PushEvent");
+    }
+
+    @Override
+    public void describe(GitHubEvent event, Appendable out) throws IOException {
+        int commits = event.getPayload() instanceof PushPayload push ? push.getCommitCount() : 0;
+        out.append("pushed ").append(Integer.toString(commits)).append(" commit(s) to ").append(Formatting.repoName(event));
+    }
+
+}
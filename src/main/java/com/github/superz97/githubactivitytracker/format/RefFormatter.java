@@ -0,0 +1,25 @@
+package com.github.superz97.githubactivitytracker.format;
+
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import com.github.superz97.githubactivitytracker.model.payload.RefPayload;
+
+import java.io.IOException;
+import java.util.Set;
+
+class RefFormatter implements EventFormatter {
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of("CreateEvent", "DeleteEvent");
+    }
+
+    @Override
+    public void describe(GitHubEvent event, Appendable out) throws IOException {
+        RefPayload ref = event.getPayload() instanceof RefPayload payload ? payload : null;
+        out.append("DeleteEvent".equals(event.getType()) ? "deleted " : "created ")
+                .append(Formatting.orDefault(ref != null ? ref.getRefType() : null, "unknown"));
+        Formatting.appendQuoted(out, ref != null ? ref.getRef() : null);
+        out.append(" in ").append(Formatting.repoName(event));
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.github.superz97.githubactivitytracker.format;
+
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import com.github.superz97.githubactivitytracker.model.payload.ForkPayload;
+import com.github.superz97.githubactivitytracker.model.payload.GollumPayload;
+import com.github.superz97.githubactivitytracker.model.payload.MemberPayload;
+import com.github.superz97.githubactivitytracker.model.payload.ReleasePayload;
+
+import java.io.IOException;
+import java.util.Set;
+
+class RepositoryFormatter implements EventFormatter {
+
+    @Override
+    public Set<String> eventTypes() {
+        return Set.of("WatchEvent", "ForkEvent", "PublicEvent", "CommitCommentEvent",
+                "ReleaseEvent", "MemberEvent", "GollumEvent");
+    }
+
+    @Override
+    public void describe(GitHubEvent event, Appendable out) throws IOException {
+        String repo = Formatting.repoName(event);
+        switch (event.getPayload()) {
+            case ForkPayload fork -> {
+                out.append("forked ").append(repo);
+                if (fork.getForkee() != null && fork.getForkee().getFullName() != null) {
+                    out.append(" to ").append(fork.getForkee().getFullName());
+                }
+            }
+            case ReleasePayload release -> {
+                out.append(Formatting.orDefault(release.getAction(), "created")).append(" a release");
+                Formatting.appendQuoted(out, release.getRelease() != null ? release.getRelease().getTagName() : null);
+                out.append(" in ").append(repo);
+            }
+            case MemberPayload member -> {
+                out.append(Formatting.orDefault(member.getAction(), "added")).append(' ');
+                if (member.getMember() != null && member.getMember().getLogin() != null) {
+                    out.append(member.getMember().getLogin()).append(" as a ");
+                }
+                out.append("member to ").append(repo);
+            }
+            case GollumPayload gollum when gollum.getPages() != null && gollum.getPages() > 0 ->
+                    out.append("updated ").append(Integer.toString(gollum.getPages())).append(" wiki page(s) in ").append(repo);
+            case GollumPayload ignored -> out.append("updated wiki in ").append(repo);
+            case null, default -> {
+                switch (event.getType()) {
+                    case "WatchEvent" -> out.append("starred ").append(repo);
+                    case "PublicEvent" -> out.append("made ").append(repo).append(" public");
+                    case "CommitCommentEvent" -> out.append("commented on a commit in ").append(repo);
+                    case "ForkEvent" -> out.append("forked ").append(repo);
+                    case "GollumEvent" -> out.append("updated wiki in ").append(repo);
+                    default -> out.append("performed ").append(event.getType()).append(" on ").append(repo);
+                }
+            }
+        }
+    }
+
+}
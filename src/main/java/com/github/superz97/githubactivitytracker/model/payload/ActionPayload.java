@@ -0,0 +1,12 @@
+package com.github.superz97.githubactivitytracker.model.payload;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class ActionPayload extends EventPayload {
+
+    private String action;
+
+}
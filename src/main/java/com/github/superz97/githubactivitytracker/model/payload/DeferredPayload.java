@@ -0,0 +1,28 @@
+package com.github.superz97.githubactivitytracker.model.payload;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// A payload that arrived ahead of the event's "type"; stays a GenericPayload if no type ever follows
+public class DeferredPayload extends GenericPayload {
+
+    @JsonIgnore
+    private final TokenBuffer buffered;
+
+    DeferredPayload(TokenBuffer buffered) {
+        this.buffered = buffered;
+    }
+
+    public EventPayload bindTo(String eventType) {
+        try (JsonParser parser = buffered.asParserOnFirstToken()) {
+            return parser.readValueAs(EventPayload.typeFor(eventType));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not bind buffered " + eventType + " payload", e);
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.github.superz97.githubactivitytracker.model.payload;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.Map;
+
+// Only the fields the tracker reads are declared; everything else is skipped by the parser without being materialized
+@JsonIgnoreProperties(ignoreUnknown = true)
+public abstract class EventPayload {
+
+    private static final Map<String, Class<? extends EventPayload>> TYPES = Map.ofEntries(
+            Map.entry("PushEvent", PushPayload.class),
+            Map.entry("CreateEvent", RefPayload.class),
+            Map.entry("DeleteEvent", RefPayload.class),
+            Map.entry("IssuesEvent", IssuePayload.class),
+            Map.entry("IssueCommentEvent", IssuePayload.class),
+            Map.entry("PullRequestEvent", PullRequestPayload.class),
+            Map.entry("PullRequestReviewEvent", ActionPayload.class),
+            Map.entry("PullRequestReviewCommentEvent", ActionPayload.class),
+            Map.entry("CommitCommentEvent", ActionPayload.class),
+            Map.entry("ForkEvent", ForkPayload.class),
+            Map.entry("ReleaseEvent", ReleasePayload.class),
+            Map.entry("MemberEvent", MemberPayload.class),
+            Map.entry("GollumEvent", GollumPayload.class));
+
+    public static Class<? extends EventPayload> typeFor(String eventType) {
+        return eventType == null ? GenericPayload.class : TYPES.getOrDefault(eventType, GenericPayload.class);
+    }
+
+}
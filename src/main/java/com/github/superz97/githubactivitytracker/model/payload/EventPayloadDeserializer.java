@@ -0,0 +1,37 @@
+package com.github.superz97.githubactivitytracker.model.payload;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+
+import java.io.IOException;
+
+// GitHub sends "type" ahead of "payload", so the enclosing event usually already knows which payload class to bind.
+// When the payload comes first it is buffered and bound by GitHubEvent.setType once the type has been read
+public class EventPayloadDeserializer extends StdDeserializer<EventPayload> {
+
+    public EventPayloadDeserializer() {
+        super(EventPayload.class);
+    }
+
+    @Override
+    public EventPayload deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        GitHubEvent event = enclosingEvent(parser);
+        if (event != null && event.getType() == null) {
+            return new DeferredPayload(context.bufferAsCopyOfValue(parser));
+        }
+        return context.readValue(parser, EventPayload.typeFor(event != null ? event.getType() : null));
+    }
+
+    private static GitHubEvent enclosingEvent(JsonParser parser) {
+        for (JsonStreamContext scope = parser.getParsingContext(); scope != null; scope = scope.getParent()) {
+            if (scope.getCurrentValue() instanceof GitHubEvent event) {
+                return event;
+            }
+        }
+        return null;
+    }
+
+}
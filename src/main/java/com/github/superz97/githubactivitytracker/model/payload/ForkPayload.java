@@ -0,0 +1,23 @@
+package com.github.superz97.githubactivitytracker.model.payload;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class ForkPayload extends EventPayload {
+
+    private Forkee forkee;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Forkee {
+
+        @JsonProperty("full_name")
+        private String fullName;
+
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.github.superz97.githubactivitytracker.model.payload;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class GollumPayload extends EventPayload {
+
+    @JsonDeserialize(using = ElementCountDeserializer.class)
+    private Integer pages;
+
+}
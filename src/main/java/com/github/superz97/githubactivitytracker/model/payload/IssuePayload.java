@@ -0,0 +1,14 @@
+package com.github.superz97.githubactivitytracker.model.payload;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class IssuePayload extends EventPayload {
+
+    private String action;
+
+    private TitledRef issue;
+
+}
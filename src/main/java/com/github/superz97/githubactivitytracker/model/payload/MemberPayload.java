@@ -0,0 +1,23 @@
+package com.github.superz97.githubactivitytracker.model.payload;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class MemberPayload extends EventPayload {
+
+    private String action;
+
+    private Member member;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Member {
+
+        private String login;
+
+    }
+
+}
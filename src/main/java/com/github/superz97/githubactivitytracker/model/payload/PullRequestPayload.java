@@ -0,0 +1,16 @@
+package com.github.superz97.githubactivitytracker.model.payload;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class PullRequestPayload extends EventPayload {
+
+    private String action;
+
+    @JsonProperty("pull_request")
+    private TitledRef pullRequest;
+
+}
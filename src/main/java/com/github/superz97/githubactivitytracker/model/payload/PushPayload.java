@@ -0,0 +1,26 @@
+package com.github.superz97.githubactivitytracker.model.payload;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class PushPayload extends EventPayload {
+
+    private String ref;
+
+    private Integer size;
+
+    // Commit objects are counted while parsing and never built
+    @JsonDeserialize(using = ElementCountDeserializer.class)
+    private Integer commits;
+
+    public int getCommitCount() {
+        if (commits != null) {
+            return commits;
+        }
+        return size != null ? size : 0;
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.github.superz97.githubactivitytracker.model.payload;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class RefPayload extends EventPayload {
+
+    private String ref;
+
+    @JsonProperty("ref_type")
+    private String refType;
+
+}
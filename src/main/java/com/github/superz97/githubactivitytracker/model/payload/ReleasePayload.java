@@ -0,0 +1,25 @@
+package com.github.superz97.githubactivitytracker.model.payload;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class ReleasePayload extends EventPayload {
+
+    private String action;
+
+    private Release release;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Release {
+
+        @JsonProperty("tag_name")
+        private String tagName;
+
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.github.superz97.githubactivitytracker.repository;
+
+import com.github.superz97.githubactivitytracker.entity.ActivityPayload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ActivityPayloadRepository extends JpaRepository<ActivityPayload, String> {
+}
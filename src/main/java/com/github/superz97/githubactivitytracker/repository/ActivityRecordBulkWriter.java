@@ -0,0 +1,146 @@
+package com.github.superz97.githubactivitytracker.repository;
+
+import com.github.superz97.githubactivitytracker.entity.ActivityRecord;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityRecordBulkWriter {
+
+    private static final String INSERT_PREFIX = """
+            WITH written AS (
+            INSERT INTO activity_records (event_id, username, event_type, repository_name, description,
+                                          event_time, fetched_at)
+            VALUES\s""";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?)";
+    private static final String ON_CONFLICT_SKIP = """
+             ON CONFLICT (event_id, event_time) DO NOTHING
+            RETURNING event_id, username, event_type, repository_name, event_time, true AS inserted""";
+    private static final String ON_CONFLICT_UPDATE = """
+             ON CONFLICT (event_id, event_time) DO UPDATE SET
+                description = EXCLUDED.description,
+                fetched_at = EXCLUDED.fetched_at
+            RETURNING event_id, username, event_type, repository_name, event_time, (xmax = 0) AS inserted""";
+    // Counters only move for rows this statement actually inserted, so replays and overlapping fetches never double count
+    private static final String MAINTAIN_STATS = """
+            ),
+            hourly AS (
+                INSERT INTO activity_hourly_stats (username, hour, event_type, repository_name, event_count)
+                SELECT username, date_trunc('hour', event_time), event_type, repository_name, count(*)
+                FROM written WHERE inserted
+                GROUP BY username, date_trunc('hour', event_time), event_type, repository_name
+                ON CONFLICT (username, hour, event_type, repository_name) DO UPDATE SET
+                    event_count = activity_hourly_stats.event_count + EXCLUDED.event_count
+            ),
+            types AS (
+                INSERT INTO activity_event_types (username, event_type, first_seen_at)
+                SELECT username, event_type, min(event_time)
+                FROM written WHERE inserted
+                GROUP BY username, event_type
+                ON CONFLICT (username, event_type) DO NOTHING
+            )
+            SELECT event_id, inserted FROM written""";
+    private static final String PAYLOAD_INSERT_PREFIX = "INSERT INTO activity_payloads (event_id, payload) VALUES ";
+    private static final String PAYLOAD_PLACEHOLDERS = "(?, ?::jsonb)";
+    private static final String PAYLOAD_ON_CONFLICT_SKIP = " ON CONFLICT (event_id) DO NOTHING";
+    private static final String PAYLOAD_ON_CONFLICT_UPDATE = " ON CONFLICT (event_id) DO UPDATE SET payload = EXCLUDED.payload";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${activity.persistence.batch-size:500}")
+    private int batchSize;
+
+    @Value("${activity.persistence.update-existing:false}")
+    private boolean updateExisting;
+
+    @Transactional
+    public BulkWriteResult write(List<ActivityRecord> records) {
+        // Postgres rejects ON CONFLICT DO UPDATE touching the same row twice in one statement, so a repeated event id
+        // keeps its last copy and the earlier ones count as skipped
+        Map<String, ActivityRecord> unique = new LinkedHashMap<>();
+        records.forEach(record -> unique.put(record.getEventId(), record));
+        List<ActivityRecord> rows = new ArrayList<>(unique.values());
+        BulkWriteResult result = new BulkWriteResult(0, 0, records.size() - rows.size());
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<ActivityRecord> chunk = rows.subList(from, Math.min(rows.size(), from + batchSize));
+            result = result.plus(writeChunk(chunk));
+        }
+        return result;
+    }
+
+    private BulkWriteResult writeChunk(List<ActivityRecord> chunk) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + chunk.size() * (ROW_PLACEHOLDERS.length() + 2) + 200);
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        sql.append(updateExisting ? ON_CONFLICT_UPDATE : ON_CONFLICT_SKIP);
+        sql.append(MAINTAIN_STATS);
+
+        AtomicInteger inserted = new AtomicInteger();
+        AtomicInteger updated = new AtomicInteger();
+        jdbcTemplate.query(sql.toString(), statement -> {
+            int index = 0;
+            for (ActivityRecord record : chunk) {
+                statement.setString(++index, record.getEventId());
+                statement.setString(++index, record.getUsername());
+                statement.setString(++index, record.getEventType());
+                statement.setString(++index, record.getRepositoryName());
+                statement.setString(++index, record.getDescription());
+                statement.setObject(++index, record.getEventTime());
+                statement.setObject(++index, record.getFetchedAt());
+            }
+        }, resultSet -> {
+            if (resultSet.getBoolean("inserted")) {
+                inserted.incrementAndGet();
+            } else {
+                updated.incrementAndGet();
+            }
+        });
+        writePayloads(chunk);
+        BulkWriteResult result = new BulkWriteResult(inserted.get(), updated.get(),
+                chunk.size() - inserted.get() - updated.get());
+        log.debug("Bulk wrote {} rows: {}", chunk.size(), result);
+        return result;
+    }
+
+    private void writePayloads(List<ActivityRecord> chunk) {
+        List<ActivityRecord> withPayload = chunk.stream()
+                .filter(record -> record.getSummaryPayload() != null)
+                .toList();
+        if (withPayload.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder(PAYLOAD_INSERT_PREFIX);
+        for (int i = 0; i < withPayload.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(PAYLOAD_PLACEHOLDERS);
+        }
+        sql.append(updateExisting ? PAYLOAD_ON_CONFLICT_UPDATE : PAYLOAD_ON_CONFLICT_SKIP);
+        jdbcTemplate.update(sql.toString(), statement -> {
+            int index = 0;
+            for (ActivityRecord record : withPayload) {
+                statement.setString(++index, record.getEventId());
+                statement.setString(++index, record.getSummaryPayload());
+            }
+        });
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.github.superz97.githubactivitytracker.repository;
 
 import com.github.superz97.githubactivitytracker.entity.ActivityRecord;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -11,19 +12,19 @@ import java.util.List;
 @Repository
 public interface ActivityRecordRepository extends JpaRepository<ActivityRecord, String> {
 
-    List<ActivityRecord> findByUsernameOrderByEventTimeDesc(String username);
-
-    List<ActivityRecord> findByUsernameAndEventTypeOrderByEventTimeDesc(String username, String eventType);
+    List<ActivityRecordView> findByUsernameOrderByEventTimeDescEventIdDesc(String username, Limit limit);
 
     @Query("""
-    SELECT ar FROM ActivityRecord ar WHERE ar.username = :username
-    AND ar.eventTime BETWEEN :startDate AND :endDate
-    ORDER BY ar.eventTime DESC
+    SELECT new com.github.superz97.githubactivitytracker.repository.ActivityRecordView(
+        ar.eventId, ar.username, ar.eventType, ar.repositoryName, ar.description, ar.eventTime)
+    FROM ActivityRecord ar WHERE ar.username = :username
+    AND (ar.eventTime < :eventTime OR (ar.eventTime = :eventTime AND ar.eventId < :eventId))
+    ORDER BY ar.eventTime DESC, ar.eventId DESC
 """)
-    List<ActivityRecord> findByUsernameAndDateRange(String username, LocalDateTime startDate, LocalDateTime endDate);
-
-    @Query("SELECT DISTINCT ar.eventType FROM ActivityRecord ar WHERE ar.username = :username")
-    List<String> findDistinctEventTypeByUsername(String username);
+    List<ActivityRecordView> findPageBefore(String username, LocalDateTime eventTime, String eventId, Limit limit);
 
+    @Query(value = "SELECT event_type FROM activity_event_types WHERE username = :username ORDER BY event_type",
+            nativeQuery = true)
+    List<String> findEventTypesByUsername(String username);
 
 }
@@ -0,0 +1,7 @@
+package com.github.superz97.githubactivitytracker.repository;
+
+import java.time.LocalDateTime;
+
+public record ActivityRecordView(String eventId, String username, String eventType, String repositoryName,
+                                 String description, LocalDateTime eventTime) {
+}
@@ -0,0 +1,50 @@
+package com.github.superz97.githubactivitytracker.repository;
+
+import com.github.superz97.githubactivitytracker.repository.ActivitySummary.Bucket;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Repository
+@RequiredArgsConstructor
+public class ActivityStatsRepository {
+
+    private static final String RANGE = " FROM activity_hourly_stats WHERE username = ? AND hour >= ? AND hour < ?";
+    private static final String BY_TYPE = "SELECT event_type AS key, sum(event_count) AS total" + RANGE
+            + " GROUP BY event_type ORDER BY total DESC, key";
+    private static final String BY_REPOSITORY = "SELECT repository_name AS key, sum(event_count) AS total, count(*) OVER () AS repositories" + RANGE
+            + " GROUP BY repository_name ORDER BY total DESC, key LIMIT ?";
+    private static final String BY_DAY = "SELECT to_char(hour, 'YYYY-MM-DD') AS key, sum(event_count) AS total" + RANGE
+            + " GROUP BY key ORDER BY total DESC, key DESC LIMIT ?";
+    private static final String BY_HOUR_OF_DAY = "SELECT to_char(hour, 'HH24') AS key, sum(event_count) AS total" + RANGE
+            + " GROUP BY key ORDER BY key";
+    private static final RowMapper<Bucket> BUCKET = (rs, rowNum) -> new Bucket(rs.getString("key"), rs.getLong("total"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ActivitySummary summarize(String username, LocalDate from, LocalDate to, int top) {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+
+        List<Bucket> byType = jdbcTemplate.query(BY_TYPE, BUCKET, username, start, end);
+        long total = byType.stream().mapToLong(Bucket::count).sum();
+        if (total == 0) {
+            return new ActivitySummary(0, List.of(), List.of(), 0, List.of(), List.of());
+        }
+        AtomicLong repositories = new AtomicLong();
+        List<Bucket> topRepositories = jdbcTemplate.query(BY_REPOSITORY, (rs, rowNum) -> {
+            repositories.set(rs.getLong("repositories"));
+            return BUCKET.mapRow(rs, rowNum);
+        }, username, start, end, top);
+        List<Bucket> busiestDays = jdbcTemplate.query(BY_DAY, BUCKET, username, start, end, top);
+        List<Bucket> byHourOfDay = jdbcTemplate.query(BY_HOUR_OF_DAY, BUCKET, username, start, end);
+        return new ActivitySummary(total, byType, topRepositories, repositories.get(), busiestDays, byHourOfDay);
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.github.superz97.githubactivitytracker.repository;
+
+import java.util.List;
+
+public record ActivitySummary(
+        long totalEvents,
+        List<Bucket> byType,
+        List<Bucket> topRepositories,
+        long repositoryCount,
+        List<Bucket> busiestDays,
+        List<Bucket> byHourOfDay
+) {
+
+    public boolean isEmpty() {
+        return totalEvents == 0;
+    }
+
+    public record Bucket(String key, long count) {
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.github.superz97.githubactivitytracker.repository;
+
+public record BulkWriteResult(int inserted, int updated, int skipped) {
+
+    public static final BulkWriteResult EMPTY = new BulkWriteResult(0, 0, 0);
+
+    public BulkWriteResult plus(BulkWriteResult other) {
+        return new BulkWriteResult(inserted + other.inserted, updated + other.updated, skipped + other.skipped);
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.github.superz97.githubactivitytracker.repository;
+
+import java.time.LocalDateTime;
+
+public record HistoryPosition(LocalDateTime eventTime, String eventId) {
+
+    private static final String SEPARATOR = "/";
+
+    public static HistoryPosition parse(String token) {
+        int separator = token.lastIndexOf(SEPARATOR);
+        if (separator <= 0 || separator == token.length() - 1) {
+            throw new IllegalArgumentException("Invalid history position: " + token);
+        }
+        return new HistoryPosition(LocalDateTime.parse(token.substring(0, separator)), token.substring(separator + 1));
+    }
+
+    public String toToken() {
+        return eventTime + SEPARATOR + eventId;
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.github.superz97.githubactivitytracker.repository;
+
+import com.github.superz97.githubactivitytracker.entity.WatchedUser;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WatchedUserRepository extends JpaRepository<WatchedUser, String> {
+
+    List<WatchedUser> findByNextPollAtLessThanEqualOrderByNextPollAt(LocalDateTime now, Limit limit);
+
+    List<WatchedUser> findAllByOrderByNextPollAt();
+
+    // An UPDATE rather than save(): a user unwatched while their poll was in flight must stay deleted
+    @Modifying
+    @Transactional
+    @Query("""
+    UPDATE WatchedUser wu SET wu.nextPollAt = :#{#user.nextPollAt},
+        wu.pollIntervalSeconds = :#{#user.pollIntervalSeconds}, wu.quietPolls = :#{#user.quietPolls},
+        wu.lastPolledAt = :#{#user.lastPolledAt}, wu.lastActivityAt = :#{#user.lastActivityAt}
+    WHERE wu.username = :#{#user.username}
+""")
+    int updateSchedule(WatchedUser user);
+
+}
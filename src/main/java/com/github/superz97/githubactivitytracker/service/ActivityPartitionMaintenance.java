@@ -0,0 +1,184 @@
+package com.github.superz97.githubactivitytracker.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityPartitionMaintenance {
+
+    private static final String PARENT_TABLE = "activity_records";
+    private static final String DEFAULT_PARTITION = "activity_records_default";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("activity_records_(\\d{4})_(\\d{2})");
+    // Shared by every node pointed at the same database
+    private static final long MAINTENANCE_LOCK = 0x61637469766974L;
+
+    private static final String LIST_PARTITIONS = """
+            SELECT child.relname
+            FROM pg_inherits
+            JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+            JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+            WHERE parent.relname = ?""";
+    private static final String ROLLUP_FROM = """
+            INSERT INTO activity_daily_rollups (day, username, event_type, event_count)
+            SELECT event_time::date, username, event_type, count(*)
+            FROM %s
+            WHERE event_time >= ? AND event_time < ?
+            GROUP BY event_time::date, username, event_type
+            ON CONFLICT (username, day, event_type) DO UPDATE SET
+                event_count = activity_daily_rollups.event_count + EXCLUDED.event_count""";
+    private static final String DELETE_PAYLOADS_FROM = """
+            DELETE FROM activity_payloads p
+            USING %s r
+            WHERE p.event_id = r.event_id AND r.event_time >= ? AND r.event_time < ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${activity.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${activity.retention.months:12}")
+    private int retentionMonths;
+
+    @Value("${activity.retention.mode:drop}")
+    private String retentionMode;
+
+    @PostConstruct
+    void validate() {
+        // Zero or less would put the current month outside the kept range and drop it
+        if (retentionMonths < 1) {
+            throw new IllegalArgumentException("activity.retention.months must be at least 1, got " + retentionMonths);
+        }
+    }
+
+    // Started rather than ready: the interactive shell runs as an application runner and blocks until it exits,
+    // and ApplicationReadyEvent is only published after the runners return
+    @EventListener(ApplicationStartedEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${activity.partitions.maintenance-cron:0 15 3 * * *}")
+    public void maintain() {
+        try {
+            YearMonth current = YearMonth.now();
+            YearMonth oldestKept = current.minusMonths(retentionMonths - 1L);
+            for (YearMonth month = oldestKept; !month.isAfter(current.plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+                ensurePartition(month);
+            }
+            expirePartitions(oldestKept);
+            expireDefaultRows(oldestKept);
+        } catch (Exception e) {
+            log.error("Activity partition maintenance failed", e);
+        }
+    }
+
+    private void ensurePartition(YearMonth month) {
+        String partition = partitionName(month);
+        if (listPartitions().contains(partition)) {
+            return;
+        }
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        // Rows that landed in the default partition for this month have to move before the range can be attached
+        inMaintenanceLock(() -> {
+            if (listPartitions().contains(partition)) {
+                return;
+            }
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition
+                    + " (LIKE " + PARENT_TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                    + " WHERE event_time >= ? AND event_time < ? RETURNING *) INSERT INTO " + partition
+                    + " SELECT * FROM moved", from.atStartOfDay(), to.atStartOfDay());
+            jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " ATTACH PARTITION " + partition
+                    + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            log.info("Created activity partition {} ({} rows moved from default)", partition, moved);
+        });
+    }
+
+    private void expirePartitions(YearMonth oldestKept) {
+        for (String partition : listPartitions()) {
+            Optional<YearMonth> month = partitionMonth(partition);
+            if (month.isEmpty() || !month.get().isBefore(oldestKept)) {
+                continue;
+            }
+            LocalDate from = month.get().atDay(1);
+            LocalDate to = month.get().plusMonths(1).atDay(1);
+            inMaintenanceLock(() -> {
+                // Another node may have rolled it up and dropped it since the list was read
+                if (!listPartitions().contains(partition)) {
+                    return;
+                }
+                int rolledUp = jdbcTemplate.update(ROLLUP_FROM.formatted(partition), from.atStartOfDay(), to.atStartOfDay());
+                if ("detach".equalsIgnoreCase(retentionMode)) {
+                    jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition);
+                    jdbcTemplate.execute("ALTER TABLE " + partition + " RENAME TO " + partition.replace(PARENT_TABLE, "activity_archive"));
+                    log.info("Rolled up {} daily rows and archived activity partition {}", rolledUp, partition);
+                } else {
+                    jdbcTemplate.update(DELETE_PAYLOADS_FROM.formatted(partition), from.atStartOfDay(), to.atStartOfDay());
+                    jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition);
+                    jdbcTemplate.execute("DROP TABLE " + partition);
+                    log.info("Rolled up {} daily rows and dropped activity partition {}", rolledUp, partition);
+                }
+            });
+        }
+    }
+
+    private void expireDefaultRows(YearMonth oldestKept) {
+        LocalDate cutoff = oldestKept.atDay(1);
+        inMaintenanceLock(() -> {
+            jdbcTemplate.update(ROLLUP_FROM.formatted(DEFAULT_PARTITION), LocalDate.EPOCH.atStartOfDay(), cutoff.atStartOfDay());
+            jdbcTemplate.update(DELETE_PAYLOADS_FROM.formatted(DEFAULT_PARTITION), LocalDate.EPOCH.atStartOfDay(), cutoff.atStartOfDay());
+            int deleted = jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE event_time < ?", cutoff.atStartOfDay());
+            if (deleted > 0) {
+                log.info("Rolled up and removed {} expired rows from {}", deleted, DEFAULT_PARTITION);
+            }
+        });
+    }
+
+    // The lock is per transaction rather than per run: DETACH holds an exclusive lock on the parent table until
+    // commit, so one transaction for the whole run would stall ingest for all of it. Each step re-checks, under the
+    // lock, whatever it read before taking it
+    private void inMaintenanceLock(Runnable step) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + MAINTENANCE_LOCK + ")");
+            step.run();
+        });
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(LIST_PARTITIONS, String.class, PARENT_TABLE);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARENT_TABLE + "_" + month.format(PARTITION_SUFFIX);
+    }
+
+    private static Optional<YearMonth> partitionMonth(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.github.superz97.githubactivitytracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.superz97.githubactivitytracker.entity.ActivityRecord;
+import com.github.superz97.githubactivitytracker.format.EventFormatterRegistry;
+import com.github.superz97.githubactivitytracker.model.Actor;
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import com.github.superz97.githubactivitytracker.model.Repo;
+import com.github.superz97.githubactivitytracker.repository.ActivityRecordView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityRecordMapper {
+
+    private final ObjectMapper objectMapper;
+    private final EventFormatterRegistry formatterRegistry;
+
+    public ActivityRecord toRecord(String username, GitHubEvent event) {
+        ActivityRecord record = new ActivityRecord();
+        record.setEventId(event.getId());
+        record.setUsername(username);
+        record.setEventType(event.getType());
+        record.setRepositoryName(event.getRepo().getName());
+
+        try {
+            record.setDescription(formatterRegistry.format(event));
+        } catch (Exception e) {
+            log.warn("Error formatting activity for event {}: {}", event.getId(), e.getMessage());
+            record.setDescription(event.getType() + " on " + event.getRepo().getName());
+        }
+
+        record.setEventTime(event.getCreatedAt());
+        record.setFetchedAt(LocalDateTime.now());
+
+        try {
+            record.setSummaryPayload(objectMapper.writeValueAsString(event.getPayload()));
+        } catch (Exception e) {
+            log.error("Error serializing payload for event: {}", event.getId(), e);
+            record.setSummaryPayload("{}");
+        }
+
+        return record;
+    }
+
+    public GitHubEvent toEvent(ActivityRecordView record) {
+        GitHubEvent event = new GitHubEvent();
+        event.setId(record.eventId());
+        event.setType(record.eventType());
+        event.setCreatedAt(record.eventTime());
+        event.setFormatted(record.description());
+
+        Actor actor = new Actor();
+        actor.setLogin(record.username());
+        event.setActor(actor);
+
+        Repo repo = new Repo();
+        repo.setName(record.repositoryName());
+        event.setRepo(repo);
+        return event;
+    }
+
+}
@@ -1,18 +1,40 @@
 package com.github.superz97.githubactivitytracker.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.superz97.githubactivitytracker.entity.ActivityPayload;
 import com.github.superz97.githubactivitytracker.entity.ActivityRecord;
+import com.github.superz97.githubactivitytracker.entity.IngestMark;
 import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import com.github.superz97.githubactivitytracker.repository.ActivityPayloadRepository;
 import com.github.superz97.githubactivitytracker.repository.ActivityRecordRepository;
+import com.github.superz97.githubactivitytracker.repository.ActivityRecordView;
+import com.github.superz97.githubactivitytracker.repository.ActivityStatsRepository;
+import com.github.superz97.githubactivitytracker.repository.ActivitySummary;
+import com.github.superz97.githubactivitytracker.repository.HistoryPosition;
+import com.github.superz97.githubactivitytracker.repository.IngestMarkRepository;
+import com.github.superz97.githubactivitytracker.service.ActivityWriteBehindQueue.EnqueueResult;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
+import reactor.core.observability.micrometer.Micrometer;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,78 +42,261 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ActivityService {
 
+    private static final int FEED_EVENT_CAP = 300;
+
     private final GitHubService gitHubService;
     private final CacheService cacheService;
     private final ActivityRecordRepository activityRepository;
-    private final ObjectMapper objectMapper;
+    private final ActivityPayloadRepository payloadRepository;
+    private final ActivityStatsRepository statsRepository;
+    private final IngestMarkRepository ingestMarkRepository;
+    private final ActivityWriteBehindQueue writeBehindQueue;
+    private final ActivityRecordMapper activityRecordMapper;
+    private final Scheduler blockingScheduler;
+    private final ObservationRegistry observationRegistry;
+
+    @Value("${activity.ingest.incremental:true}")
+    private boolean incrementalIngest;
+
+    @Value("${activity.ingest.stall-timeout:30s}")
+    private Duration stallTimeout = Duration.ofSeconds(30);
+
+    @Value("${activity.history.page-size:500}")
+    private int historyPageSize = 500;
+
+    private final Map<String, Flux<GitHubEvent>> inFlightFetches = new ConcurrentHashMap<>();
+    private final Map<String, HighWaterMark> highWaterMarks = new ConcurrentHashMap<>();
 
     public Flux<GitHubEvent> getUserActivity(String username, boolean forceRefresh) {
-        if (forceRefresh) {
-            return fetchAndCacheActivity(username);
+        Flux<GitHubEvent> events = forceRefresh
+                ? fetchAndCacheActivity(username)
+                : cacheService.getCachedEntry(username)
+                        .flatMapMany(entry -> {
+                            if (entry.events() == null || entry.events().isEmpty()) {
+                                return fetchAndCacheActivity(username);
+                            }
+                            if (!cacheService.isFresh(entry)) {
+                                refreshInBackground(username);
+                            }
+                            return Flux.fromIterable(entry.events());
+                        })
+                        .switchIfEmpty(Flux.defer(() -> fetchAndCacheActivity(username)));
+        // One observation per subscription: a timer for metrics and the parent span of the GitHub requests it makes
+        return events.name("activity.fetch")
+                .tag("refresh", String.valueOf(forceRefresh))
+                .tap(Micrometer.observation(observationRegistry));
+    }
+
+    public Mono<Boolean> refreshActivity(String username) {
+        return Mono.defer(() -> {
+            HighWaterMark before = highWaterMarks.get(username);
+            return fetchAndCacheActivity(username)
+                    .then(Mono.fromSupplier(() -> !Objects.equals(before, highWaterMarks.get(username))));
+        });
+    }
+
+    private void refreshInBackground(String username) {
+        log.debug("Serving stale activity for user: {} while refreshing", username);
+        fetchAndCacheActivity(username)
+                .subscribe(null, error -> log.warn("Background refresh failed for user: {}: {}", username, error.getMessage()));
+    }
+
+    private Flux<GitHubEvent> fetchAndCacheActivity(String username) {
+        return Flux.defer(() -> inFlightFetches.computeIfAbsent(username, this::sharedFetch));
+    }
+
+    // refCount: once every caller has stopped (activity --limit, take(n)) the fetch is cancelled and later pages are
+    // never requested. A truncated fetch caches nothing, stores nothing and leaves the ETag validators and ingest
+    // mark as they were, since all of those are only written when the feed completes
+    private Flux<GitHubEvent> sharedFetch(String username) {
+        AtomicReference<Flux<GitHubEvent>> self = new AtomicReference<>();
+        // Bounds each gap between upstream events: the replay below requests everything, so time a caller spends
+        // between reads (a pager prompt) never counts, while a stalled page or a long rate-limit hold does
+        Flux<GitHubEvent> shared = fetchFromGitHub(username)
+                .timeout(stallTimeout)
+                .onErrorMap(TimeoutException.class, e -> new FetchTimeoutException(username, stallTimeout))
+                .doOnCancel(() -> log.debug("Fetch for user: {} stopped early, nothing cached", username))
+                .doFinally(signal -> inFlightFetches.remove(username, self.get()))
+                .replay()
+                .refCount();
+        self.set(shared);
+        return shared;
+    }
+
+    private Flux<GitHubEvent> fetchFromGitHub(String username) {
+        if (!incrementalIngest) {
+            return fetchFullActivity(username);
         }
-        return cacheService.getCachedActivity(username)
-                .flatMapMany(cachedEvents -> {
-                    if (cachedEvents != null && !cachedEvents.isEmpty()) {
-                        return Flux.fromIterable(cachedEvents);
-                    }
-                    return fetchAndCacheActivity(username);
+        return getHighWaterMark(username)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMapMany(mark -> mark.isPresent()
+                        ? fetchNewActivity(username, mark.get())
+                        : fetchFullActivity(username))
+                .onErrorResume(NotModifiedException.class, e -> serveUnchangedActivity(username));
+    }
+
+    private Flux<GitHubEvent> fetchFullActivity(String username) {
+        return Flux.defer(() -> {
+                    List<GitHubEvent> received = new ArrayList<>();
+                    return gitHubService.getUserActivity(username)
+                            .doOnNext(received::add)
+                            .doOnComplete(() -> {
+                                cacheService.cacheActivity(username, received).subscribe();
+                                advanceHighWaterMark(username, received);
+                                persistIngest(username, received);
+                            });
                 })
-                .switchIfEmpty(fetchAndCacheActivity(username));
+                .onErrorResume(NotModifiedException.class, e -> serveUnchangedActivity(username));
     }
 
-    private Flux<GitHubEvent> fetchAndCacheActivity(String username) {
-        return gitHubService.getUserActivity(username)
-                .collectList()
+    private Flux<GitHubEvent> fetchNewActivity(String username, HighWaterMark mark) {
+        return Flux.defer(() -> {
+            List<GitHubEvent> delta = new ArrayList<>();
+            List<GitHubEvent> merged = new ArrayList<>();
+            return gitHubService.getUserActivity(username, mark::isOlderThan)
+                    .doOnNext(delta::add)
+                    .doOnComplete(() -> {
+                        log.info("Fetched {} new events for user: {}", delta.size(), username);
+                        if (delta.size() >= FEED_EVENT_CAP) {
+                            log.warn("Feed cap reached before the last known event for user: {}, history may have a gap", username);
+                        }
+                        if (!delta.isEmpty()) {
+                            advanceHighWaterMark(username, delta);
+                            persistIngest(username, List.copyOf(delta));
+                        }
+                    })
+                    .concatWith(Flux.defer(() -> loadKnownActivity(username)
+                            .flatMapIterable(events -> events)
+                            .filter(mark::isCoveredBy)
+                            .take(Math.max(0, FEED_EVENT_CAP - delta.size()))))
+                    .doOnNext(merged::add)
+                    .doOnComplete(() -> cacheService.cacheActivity(username, merged).subscribe());
+        });
+    }
+
+    private Mono<List<GitHubEvent>> loadKnownActivity(String username) {
+        Mono<List<GitHubEvent>> stored = getHistoryPage(username, null, FEED_EVENT_CAP)
+                .map(records -> records.stream()
+                        .map(activityRecordMapper::toEvent)
+                        .collect(Collectors.toList()));
+        return cacheService.getCachedActivity(username)
+                .filter(events -> !events.isEmpty())
+                .switchIfEmpty(stored)
+                .filter(events -> !events.isEmpty());
+    }
+
+    private Flux<GitHubEvent> serveUnchangedActivity(String username) {
+        return loadKnownActivity(username)
+                .flatMap(events -> cacheService.cacheActivity(username, events).thenReturn(events))
                 .flatMapMany(events -> {
-                    cacheService.cacheActivity(username, events).subscribe();
-                    saveToDatabase(username, events).subscribe();
+                    log.info("GitHub reported no changes for user: {}, serving {} known events", username, events.size());
                     return Flux.fromIterable(events);
-                });
+                })
+                .switchIfEmpty(Flux.defer(() -> {
+                    log.warn("No known activity to serve for unchanged user: {}, refetching", username);
+                    gitHubService.forgetValidators(username);
+                    highWaterMarks.remove(username);
+                    return fetchFullActivity(username);
+                }));
+    }
+
+    private Mono<HighWaterMark> getHighWaterMark(String username) {
+        HighWaterMark known = highWaterMarks.get(username);
+        if (known != null) {
+            return Mono.just(known);
+        }
+        // Only a mark written by a completed ingest is trusted; the newest stored record may come from a partial one
+        return Mono.fromCallable(() -> ingestMarkRepository.findById(username))
+                .subscribeOn(blockingScheduler)
+                .flatMap(Mono::justOrEmpty)
+                .map(stored -> new HighWaterMark(stored.getEventId(), stored.getEventTime()))
+                .doOnNext(mark -> highWaterMarks.putIfAbsent(username, mark));
+    }
+
+    // The mark is stored only once the queue reports every record committed. If any were spilled, dropped or failed,
+    // the in-memory mark is rolled back too, so the next ingest starts from the previous mark and fetches them again
+    private void persistIngest(String username, List<GitHubEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        HighWaterMark ingested = HighWaterMark.of(events.get(0));
+        saveToDatabase(username, events)
+                .flatMap(result -> Mono.fromFuture(result.written()))
+                .then(recordIngestMark(username, ingested))
+                .onErrorResume(error -> {
+                    log.warn("Activity for user: {} was not fully written, keeping the previous ingest mark: {}",
+                            username, error.getMessage());
+                    highWaterMarks.remove(username, ingested);
+                    return Mono.empty();
+                })
+                .subscribe();
     }
 
-    // Mono<Void>
-    private Mono<Void> saveToDatabase(String username, List<GitHubEvent> events) {
+    private Mono<Void> recordIngestMark(String username, HighWaterMark mark) {
         return Mono.fromRunnable(() -> {
-                    try {
-                        List<ActivityRecord> records = events.stream()
-                                .map(event -> {
-                                    ActivityRecord record = new ActivityRecord();
-                                    record.setEventId(event.getId());
-                                    record.setUsername(username);
-                                    record.setEventType(event.getType());
-                                    record.setRepositoryName(event.getRepo().getName());
-
-                                    try {
-                                        record.setDescription(event.getFormattedActivity());
-                                    } catch (Exception e) {
-                                        log.warn("Error formatting activity for event {}: {}", event.getId(), e.getMessage());
-                                        record.setDescription(event.getType() + " on " + event.getRepo().getName());
-                                    }
-
-                                    record.setEventTime(event.getCreatedAt());
-                                    record.setFetchedAt(LocalDateTime.now());
-
-                                    try {
-                                        record.setRawPayload(objectMapper.writeValueAsString(event.getPayload()));
-                                    } catch (Exception e) {
-                                        log.error("Error serializing payload for event: {}", event.getId(), e);
-                                        record.setRawPayload("{}");
-                                    }
-
-                                    return record;
-                                })
-                                .collect(Collectors.toList());
-
-                        activityRepository.saveAll(records);
-                        log.info("Saved {} activity records for user: {}", records.size(), username);
-                    } catch (Exception e) {
-                        log.error("Error saving activities to database for user: {}", username, e);
-                    }
-                }).subscribeOn(Schedulers.boundedElastic())
+                    IngestMark stored = new IngestMark();
+                    stored.setUsername(username);
+                    stored.setEventId(mark.eventId());
+                    stored.setEventTime(mark.eventTime());
+                    stored.setCompletedAt(LocalDateTime.now());
+                    ingestMarkRepository.save(stored);
+                })
+                .subscribeOn(blockingScheduler)
                 .onErrorResume(throwable -> {
-                    log.error("Database save failed for user: {}", username, throwable);
+                    log.warn("Could not record ingest mark for user: {}: {}", username, throwable.getMessage());
                     return Mono.empty();
-                }).then();
+                })
+                .then();
+    }
+
+    private void advanceHighWaterMark(String username, List<GitHubEvent> newestFirst) {
+        if (newestFirst.isEmpty()) {
+            return;
+        }
+        GitHubEvent newest = newestFirst.get(0);
+        HighWaterMark candidate = HighWaterMark.of(newest);
+        highWaterMarks.merge(username, candidate,
+                (current, next) -> current.isOlderThan(newest) ? next : current);
+    }
+
+    private record HighWaterMark(String eventId, LocalDateTime eventTime) {
+
+        static HighWaterMark of(GitHubEvent event) {
+            return new HighWaterMark(event.getId(), event.getCreatedAt());
+        }
+
+        boolean isOlderThan(GitHubEvent event) {
+            try {
+                return Long.parseLong(event.getId()) > Long.parseLong(eventId);
+            } catch (NumberFormatException e) {
+                return !event.getId().equals(eventId)
+                        && event.getCreatedAt() != null && event.getCreatedAt().isAfter(eventTime);
+            }
+        }
+
+        boolean isCoveredBy(GitHubEvent event) {
+            return !isOlderThan(event);
+        }
+    }
+
+    private Mono<EnqueueResult> saveToDatabase(String username, List<GitHubEvent> events) {
+        return Mono.fromCallable(() -> {
+                    List<ActivityRecord> records = events.stream()
+                            .map(event -> activityRecordMapper.toRecord(username, event))
+                            .collect(Collectors.toList());
+
+                    EnqueueResult result = writeBehindQueue.enqueue(records);
+                    if (result.spilled() > 0 || result.dropped() > 0) {
+                        log.warn("Queued {} of {} activity records for user: {} ({} spilled, {} dropped)",
+                                result.queued(), records.size(), username, result.spilled(), result.dropped());
+                    } else {
+                        log.info("Queued {} activity records for user: {}", records.size(), username);
+                    }
+                    return result;
+                })
+                .subscribeOn(blockingScheduler)
+                .doOnError(error -> log.error("Error saving activities to database for user: {}", username, error));
     }
 
     public Flux<GitHubEvent> getFilteredActivity(String username, String eventType) {
@@ -99,14 +304,52 @@ public class ActivityService {
                 .filter(event -> event.getType().equalsIgnoreCase(eventType));
     }
 
-    public Mono<List<ActivityRecord>> getHistoricalActivity(String username) {
-        return Mono.fromCallable(() -> activityRepository.findByUsernameOrderByEventTimeDesc(username))
-                .subscribeOn(Schedulers.boundedElastic());
+    // Each keyset page is its own short query, so a caller sitting at the pager holds no connection or transaction
+    public Flux<ActivityRecordView> getHistoricalActivity(String username) {
+        return getHistoryPage(username, null, historyPageSize)
+                .expand(page -> {
+                    if (page.size() < historyPageSize) {
+                        return Mono.empty();
+                    }
+                    ActivityRecordView last = page.get(page.size() - 1);
+                    return getHistoryPage(username, new HistoryPosition(last.eventTime(), last.eventId()), historyPageSize);
+                })
+                .flatMapIterable(Function.identity(), 1);
+    }
+
+    public Flux<GitHubEvent> streamStoredActivity(String username) {
+        return getHistoricalActivity(username).map(activityRecordMapper::toEvent);
+    }
+
+    public Mono<List<ActivityRecordView>> getHistoryPage(String username, HistoryPosition before, int size) {
+        return Mono.fromCallable(() -> before == null
+                        ? activityRepository.findByUsernameOrderByEventTimeDescEventIdDesc(username, Limit.of(size))
+                        : activityRepository.findPageBefore(username, before.eventTime(), before.eventId(), Limit.of(size)))
+                .subscribeOn(blockingScheduler);
+    }
+
+    public Mono<ActivitySummary> getSummary(String username, LocalDate from, LocalDate to, int top) {
+        return Mono.fromCallable(() -> statsRepository.summarize(username, from, to, top))
+                .subscribeOn(blockingScheduler);
+    }
+
+    public Mono<String> getEventPayload(String eventId) {
+        return Mono.fromCallable(() -> payloadRepository.findById(eventId))
+                .subscribeOn(blockingScheduler)
+                .flatMap(Mono::justOrEmpty)
+                .mapNotNull(ActivityPayload::getPayload);
     }
 
     public Mono<List<String>> getAvailableEventTypes(String username) {
-        return Mono.fromCallable(() -> activityRepository.findDistinctEventTypeByUsername(username))
-                .subscribeOn(Schedulers.boundedElastic());
+        return Mono.fromCallable(() -> activityRepository.findEventTypesByUsername(username))
+                .subscribeOn(blockingScheduler)
+                .filter(types -> !types.isEmpty())
+                // Nothing stored yet: answer from the feed itself, the ingest fills the table for next time
+                .switchIfEmpty(Mono.defer(() -> getUserActivity(username, false)
+                        .map(GitHubEvent::getType)
+                        .distinct()
+                        .sort()
+                        .collectList()));
     }
 
 }
@@ -0,0 +1,372 @@
+package com.github.superz97.githubactivitytracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.superz97.githubactivitytracker.entity.ActivityRecord;
+import com.github.superz97.githubactivitytracker.repository.ActivityRecordBulkWriter;
+import com.github.superz97.githubactivitytracker.repository.BulkWriteResult;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Records are acknowledged once they are in memory, so a crash or kill -9 loses whatever is still queued: at most
+// `capacity` records, normally less than one flush interval's worth. Nothing is journaled per enqueue; callers that
+// must not lose data wait for EnqueueResult.written(), and ActivityService only moves its ingest mark once that
+// completes, so events lost this way are fetched again on the next ingest
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityWriteBehindQueue {
+
+    private final ActivityRecordBulkWriter bulkWriter;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${activity.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${activity.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${activity.write-behind.flush-interval:1s}")
+    private Duration flushInterval;
+
+    @Value("${activity.write-behind.offer-timeout:100ms}")
+    private Duration offerTimeout;
+
+    @Value("${activity.write-behind.overflow:spill}")
+    private String overflowPolicy;
+
+    @Value("${activity.write-behind.spill-file:data/activity-spill.ndjson}")
+    private String spillFileLocation;
+
+    @Value("${activity.write-behind.replay-interval:1m}")
+    private Duration replayInterval;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong lastFlushMillis = new AtomicLong();
+    private final AtomicLong maxFlushMillis = new AtomicLong();
+
+    private BlockingQueue<Pending> queue;
+    private Path spillFile;
+    private Timer flushTimer;
+    private Timer failedFlushTimer;
+    private DistributionSummary batchSizes;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(capacity);
+        spillFile = Path.of(spillFileLocation);
+        registerMeters();
+        running = true;
+        flusher = Thread.ofPlatform()
+                .name("activity-write-behind")
+                .daemon(true)
+                .start(this::runFlushLoop);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join(flushInterval.multipliedBy(5).toMillis());
+        List<Pending> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        if (!pending.isEmpty()) {
+            log.info("Spilling {} pending activity records on shutdown", pending.size());
+            spillUnwritten(pending, new IllegalStateException("Write-behind queue stopped before the records were written"));
+        }
+    }
+
+    private void registerMeters() {
+        Gauge.builder("activity.persistence.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        flushTimer = Timer.builder("activity.persistence.flush").tag("outcome", "success").register(meterRegistry);
+        failedFlushTimer = Timer.builder("activity.persistence.flush").tag("outcome", "failure").register(meterRegistry);
+        batchSizes = DistributionSummary.builder("activity.persistence.batch.size").register(meterRegistry);
+        FunctionCounter.builder("activity.persistence.records", enqueued, AtomicLong::get)
+                .tag("outcome", "enqueued").register(meterRegistry);
+        FunctionCounter.builder("activity.persistence.records", written, AtomicLong::get)
+                .tag("outcome", "written").register(meterRegistry);
+        FunctionCounter.builder("activity.persistence.records", spilled, AtomicLong::get)
+                .tag("outcome", "spilled").register(meterRegistry);
+        FunctionCounter.builder("activity.persistence.records", dropped, AtomicLong::get)
+                .tag("outcome", "dropped").register(meterRegistry);
+    }
+
+    // Never blocks longer than offer-timeout in total; what does not fit is spilled or dropped and reported back
+    public EnqueueResult enqueue(Collection<ActivityRecord> records) throws InterruptedException {
+        Ticket ticket = new Ticket(records.size());
+        List<ActivityRecord> overflow = new ArrayList<>();
+        // One wait budget for the whole call; once it is spent the rest only gets a non-blocking offer
+        long deadline = System.nanoTime() + offerTimeout.toNanos();
+        for (ActivityRecord record : records) {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            if (queue.offer(new Pending(record, ticket), remaining, TimeUnit.NANOSECONDS)) {
+                enqueued.incrementAndGet();
+            } else {
+                overflow.add(record);
+            }
+        }
+        int queued = records.size() - overflow.size();
+        if (overflow.isEmpty()) {
+            return new EnqueueResult(queued, 0, 0, ticket.written);
+        }
+        ticket.fail(new WriteBehindOverflowException(overflow.size(), overflowPolicy));
+        if ("drop".equalsIgnoreCase(overflowPolicy)) {
+            dropped.addAndGet(overflow.size());
+            log.warn("Write-behind queue full, dropped {} activity records", overflow.size());
+            return new EnqueueResult(queued, 0, overflow.size(), ticket.written);
+        }
+        log.warn("Write-behind queue full, spilling {} activity records to {}", overflow.size(), spillFile);
+        return spill(overflow)
+                ? new EnqueueResult(queued, overflow.size(), 0, ticket.written)
+                : new EnqueueResult(queued, 0, overflow.size(), ticket.written);
+    }
+
+    public WriteBehindStats getStats() {
+        return new WriteBehindStats(queue.size(), capacity, enqueued.get(), written.get(), batches.get(),
+                failedBatches.get(), spilled.get(), dropped.get(), lastBatchSize.get(),
+                lastFlushMillis.get(), maxFlushMillis.get());
+    }
+
+    private void runFlushLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        long nextReplay = System.nanoTime();
+        while (running) {
+            try {
+                // Batches that failed while the database was away are retried here rather than on the next start
+                if (System.nanoTime() - nextReplay >= 0) {
+                    replaySpillFiles();
+                    nextReplay = System.nanoTime() + replayInterval.toNanos();
+                }
+                Pending first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        // Records polled when the loop was stopped but never handed to flush
+        if (!batch.isEmpty()) {
+            spillUnwritten(batch, new IllegalStateException("Write-behind queue stopped before the records were written"));
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        List<ActivityRecord> records = batch.stream().map(Pending::record).toList();
+        try {
+            write(records);
+        } catch (Exception e) {
+            log.error("Failed to flush {} activity records, spilling to {}", records.size(), spillFile, e);
+            spillUnwritten(batch, e);
+            return;
+        }
+        batch.forEach(pending -> pending.ticket().recordWritten());
+    }
+
+    private void write(List<ActivityRecord> records) {
+        // The same event can be queued twice by overlapping fetches; keep one row per statement
+        Map<String, ActivityRecord> unique = new LinkedHashMap<>();
+        records.forEach(record -> unique.put(record.getEventId(), record));
+        long started = System.nanoTime();
+        try {
+            BulkWriteResult result = bulkWriter.write(new ArrayList<>(unique.values()));
+            long elapsedNanos = System.nanoTime() - started;
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            flushTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            batchSizes.record(unique.size());
+            written.addAndGet(unique.size());
+            batches.incrementAndGet();
+            lastBatchSize.set(unique.size());
+            lastFlushMillis.set(elapsedMillis);
+            maxFlushMillis.accumulateAndGet(elapsedMillis, Math::max);
+            log.debug("Flushed {} activity records in {}ms: {}", unique.size(), elapsedMillis, result);
+        } catch (RuntimeException e) {
+            failedBatches.incrementAndGet();
+            failedFlushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private void spillUnwritten(List<Pending> pending, Throwable cause) {
+        spill(pending.stream().map(Pending::record).toList());
+        pending.forEach(entry -> entry.ticket().fail(cause));
+    }
+
+    private synchronized boolean spill(List<ActivityRecord> records) {
+        try {
+            Path parent = spillFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (ActivityRecord record : records) {
+                    writer.write(objectMapper.writeValueAsString(record));
+                    writer.newLine();
+                }
+            }
+            spilled.addAndGet(records.size());
+            return true;
+        } catch (IOException e) {
+            dropped.addAndGet(records.size());
+            log.error("Failed to spill {} activity records to {}, they are lost", records.size(), spillFile, e);
+            return false;
+        }
+    }
+
+    private void replaySpillFiles() {
+        Path replaying = spillFile.resolveSibling(spillFile.getFileName() + ".replaying");
+        // A leftover .replaying file is a replay that was interrupted or hit a database error
+        if (Files.exists(replaying) && !replay(replaying)) {
+            return;
+        }
+        synchronized (this) {
+            try {
+                if (!Files.exists(spillFile)) {
+                    return;
+                }
+                Files.move(spillFile, replaying, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.error("Could not claim spill file {}", spillFile, e);
+                return;
+            }
+        }
+        replay(replaying);
+    }
+
+    // Stops at the first failed batch and keeps the file for the next attempt; batches already written are
+    // written again then, which the bulk writer's ON CONFLICT absorbs
+    private boolean replay(Path file) {
+        log.info("Replaying spilled activity records from {}", file);
+        List<ActivityRecord> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(objectMapper.readValue(line, ActivityRecord.class));
+                if (batch.size() == batchSize) {
+                    write(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } catch (IOException e) {
+            log.error("Failed to read spill file {}, it will be retried", file, e);
+            return false;
+        } catch (RuntimeException e) {
+            log.warn("Replaying {} failed, retrying in {}: {}", file, replayInterval, e.getMessage());
+            return false;
+        }
+        try {
+            Files.delete(file);
+        } catch (IOException e) {
+            log.error("Could not delete replayed spill file {}", file, e);
+            return false;
+        }
+        return true;
+    }
+
+    // written completes once every queued record of the call is committed; it fails if any record overflowed,
+    // or if a flush failed and the record went to the spill file to be replayed later
+    public record EnqueueResult(int queued, int spilled, int dropped, CompletableFuture<Void> written) {
+    }
+
+    public static class WriteBehindOverflowException extends RuntimeException {
+
+        public WriteBehindOverflowException(int records, String policy) {
+            super("Write-behind queue full, " + records + " activity records were not queued (overflow: " + policy + ")");
+        }
+
+    }
+
+    private record Pending(ActivityRecord record, Ticket ticket) {
+    }
+
+    private static final class Ticket {
+
+        private final AtomicInteger outstanding;
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+
+        Ticket(int records) {
+            outstanding = new AtomicInteger(records);
+            if (records == 0) {
+                written.complete(null);
+            }
+        }
+
+        void recordWritten() {
+            if (outstanding.decrementAndGet() == 0) {
+                written.complete(null);
+            }
+        }
+
+        void fail(Throwable cause) {
+            written.completeExceptionally(cause);
+        }
+    }
+
+    public record WriteBehindStats(int queueDepth, int capacity, long enqueued, long written, long batches,
+                                   long failedBatches, long spilled, long dropped, long lastBatchSize,
+                                   long lastFlushMillis, long maxFlushMillis) {
+    }
+
+}
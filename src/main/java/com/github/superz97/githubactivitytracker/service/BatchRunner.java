@@ -0,0 +1,135 @@
+package com.github.superz97.githubactivitytracker.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class BatchRunner {
+
+    private final CacheService cacheService;
+    private final GitHubRequestScheduler requestScheduler;
+
+    @Value("${batch.concurrency:8}")
+    private int concurrency;
+
+    @Value("${batch.user-timeout:30s}")
+    private Duration userTimeout;
+
+    public List<String> resolveUsernames(String users, String file) throws IOException {
+        Set<String> usernames = new LinkedHashSet<>();
+        if (users != null) {
+            Arrays.stream(users.split("[,\\s]+"))
+                    .map(String::trim)
+                    .filter(name -> !name.isEmpty())
+                    .forEach(usernames::add);
+        }
+        if (file != null) {
+            try (Stream<String> lines = Files.lines(Path.of(file))) {
+                lines.map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .forEach(usernames::add);
+            }
+        }
+        return new ArrayList<>(usernames);
+    }
+
+    public Mono<Baseline> baseline() {
+        return cacheService.getStats()
+                .map(stats -> new Baseline(System.nanoTime(), stats.localHits() + stats.redisHits(),
+                        stats.redisMisses(), requestScheduler.getRequestsSent()));
+    }
+
+    // Results are emitted in completion order, so one slow user never holds back the others
+    public <T> Flux<BatchResult<T>> run(Collection<String> usernames, Function<String, Mono<T>> task) {
+        return Flux.fromIterable(usernames)
+                .flatMap(username -> Mono.defer(() -> task.apply(username))
+                        .timeout(userTimeout)
+                        .map(value -> BatchResult.success(username, value))
+                        .onErrorResume(error -> Mono.just(BatchResult.<T>failure(username, describe(error))))
+                        .defaultIfEmpty(BatchResult.failure(username, "no result"))
+                        .elapsed()
+                        .map(timed -> timed.getT2().withElapsed(Duration.ofMillis(timed.getT1()))),
+                        concurrency);
+    }
+
+    public Mono<BatchReport> report(Baseline baseline, List<? extends BatchResult<?>> results) {
+        return cacheService.getStats()
+                .map(stats -> {
+                    List<Duration> durations = results.stream()
+                            .map(BatchResult::elapsed)
+                            .sorted()
+                            .toList();
+                    long failures = results.stream().filter(result -> !result.isSuccess()).count();
+                    return new BatchReport(
+                            results.size(),
+                            failures,
+                            Duration.ofNanos(System.nanoTime() - baseline.startedNanos()),
+                            percentile(durations, 50),
+                            percentile(durations, 99),
+                            durations.isEmpty() ? Duration.ZERO : durations.get(durations.size() - 1),
+                            stats.localHits() + stats.redisHits() - baseline.cacheHits(),
+                            stats.redisMisses() - baseline.cacheMisses(),
+                            requestScheduler.getRequestsSent() - baseline.apiCalls());
+                });
+    }
+
+    private static Duration percentile(List<Duration> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return Duration.ZERO;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    private String describe(Throwable error) {
+        if (error instanceof TimeoutException) {
+            return "timed out after " + userTimeout.toSeconds() + "s";
+        }
+        return error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+    }
+
+    public record Baseline(long startedNanos, long cacheHits, long cacheMisses, long apiCalls) {
+    }
+
+    public record BatchResult<T>(String username, T value, String error, Duration elapsed) {
+
+        static <T> BatchResult<T> success(String username, T value) {
+            return new BatchResult<>(username, value, null, Duration.ZERO);
+        }
+
+        static <T> BatchResult<T> failure(String username, String error) {
+            return new BatchResult<>(username, null, error, Duration.ZERO);
+        }
+
+        BatchResult<T> withElapsed(Duration elapsed) {
+            return new BatchResult<>(username, value, error, elapsed);
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    public record BatchReport(int users, long failures, Duration wallTime, Duration p50, Duration p99,
+                              Duration slowest, long cacheHits, long cacheMisses, long apiCalls) {
+    }
+
+}
@@ -1,16 +1,31 @@
 package com.github.superz97.githubactivitytracker.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.superz97.githubactivitytracker.cache.CacheEntrySerializer;
+import com.github.superz97.githubactivitytracker.cache.CachedActivity;
+import com.github.superz97.githubactivitytracker.format.EventFormatterRegistry;
 import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -18,34 +33,116 @@ import java.util.List;
 public class CacheService {
 
     private final ReactiveRedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final ReactiveRedisTemplate<String, byte[]> binaryRedisTemplate;
+    private final CacheEntrySerializer cacheEntrySerializer;
+    private final EventFormatterRegistry formatterRegistry;
+    private final MeterRegistry meterRegistry;
     private static final String CACHE_KEY_PREFIX = "github:activity:";
+    private static final String INVALIDATION_CHANNEL = "github:activity:invalidations";
     private static final Duration CACHE_TTL = Duration.ofMinutes(5);
+    private static final Duration CACHE_STALE_TTL = Duration.ofHours(1);
 
-    public Mono<List<GitHubEvent>> getCachedActivity(String username) {
+    @Value("${cache.activity.mode:full}")
+    private String cacheMode;
+
+    @Value("${cache.activity.local.max-size:10000}")
+    private long localMaxSize;
+
+    @Value("${cache.activity.local.ttl:1m}")
+    private Duration localTtl;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private Cache<String, CachedActivity> localCache;
+    private Disposable invalidationListener;
+    private Counter redisHits;
+    private Counter redisMisses;
+    private Timer decodeTimer;
+    private Timer encodeTimer;
+    private DistributionSummary bytesRead;
+    private DistributionSummary bytesWritten;
+
+    @PostConstruct
+    void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        // Both tiers report as cache.gets so the hit ratio of each can be read side by side
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "activity-local");
+        redisHits = Counter.builder("cache.gets").tags("cache", "activity-redis", "result", "hit").register(meterRegistry);
+        redisMisses = Counter.builder("cache.gets").tags("cache", "activity-redis", "result", "miss").register(meterRegistry);
+        decodeTimer = Timer.builder("activity.cache.decode").register(meterRegistry);
+        encodeTimer = Timer.builder("activity.cache.encode").register(meterRegistry);
+        bytesRead = DistributionSummary.builder("activity.cache.payload.size")
+                .baseUnit("bytes").tag("operation", "read").register(meterRegistry);
+        bytesWritten = DistributionSummary.builder("activity.cache.payload.size")
+                .baseUnit("bytes").tag("operation", "write").register(meterRegistry);
+        invalidationListener = redisTemplate.listenToChannel(INVALIDATION_CHANNEL)
+                .subscribe(message -> onInvalidation(message.getMessage()),
+                        error -> log.error("Cache invalidation listener failed", error));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (invalidationListener != null) {
+            invalidationListener.dispose();
+        }
+    }
+
+    public Mono<CachedActivity> getCachedEntry(String username) {
+        CachedActivity local = localCache.getIfPresent(username);
+        if (local != null) {
+            log.debug("Local cache hit for user: {}", username);
+            return Mono.just(local);
+        }
         String key = CACHE_KEY_PREFIX + username;
-        return redisTemplate.opsForValue()
+        return binaryRedisTemplate.opsForValue()
                 .get(key)
-                .mapNotNull(json -> {
+                .mapNotNull(data -> {
+                    bytesRead.record(data.length);
                     try {
-                        return objectMapper.readValue(json, new TypeReference<List<GitHubEvent>>() {});
+                        return decodeTimer.recordCallable(() -> cacheEntrySerializer.deserialize(data));
                     } catch (Exception e) {
                         log.error("Error deserializing cached data for user: {}", username, e);
                         return null;
                     }
                 })
-                .doOnNext(events -> {
-                    if (events != null) {
-                        log.info("Cache hit for user: {}, found {} events", username, events.size());
+                .doOnSuccess(entry -> {
+                    if (entry == null) {
+                        redisMisses.increment();
+                        return;
                     }
+                    redisHits.increment();
+                    localCache.put(username, entry);
+                    log.info("Cache hit for user: {}, found {} events{}",
+                            username, entry.events().size(), isFresh(entry) ? "" : " (stale)");
                 });
     }
 
+    public Mono<List<GitHubEvent>> getCachedActivity(String username) {
+        return getCachedEntry(username).map(CachedActivity::events);
+    }
+
+    public boolean isFresh(CachedActivity entry) {
+        return entry.cachedAt().plus(CACHE_TTL).isAfter(Instant.now());
+    }
+
     public Mono<Boolean> cacheActivity(String username, List<GitHubEvent> events) {
         String key = CACHE_KEY_PREFIX + username;
-        return Mono.fromCallable(() -> objectMapper.writeValueAsString(events))
-                .flatMap(json -> redisTemplate.opsForValue().set(key, json, CACHE_TTL))
-                .doOnSuccess(result -> log.info("Cached {} events for user: {}", events.size(), username))
+        List<GitHubEvent> cachedEvents = "display".equalsIgnoreCase(cacheMode)
+                ? events.stream().map(event -> event.toDisplayProjection(formatterRegistry.format(event))).toList()
+                : events;
+        CachedActivity entry = new CachedActivity(cachedEvents, Instant.now());
+        return Mono.fromCallable(() -> encodeTimer.recordCallable(() -> cacheEntrySerializer.serialize(entry)))
+                .doOnNext(data -> bytesWritten.record(data.length))
+                .flatMap(data -> binaryRedisTemplate.opsForValue().set(key, data, CACHE_TTL.plus(CACHE_STALE_TTL)))
+                .doOnSuccess(result -> {
+                    localCache.put(username, entry);
+                    publishInvalidation(username);
+                    log.info("Cached {} events for user: {}", events.size(), username);
+                })
                 .onErrorResume(e -> {
                     log.error("Error caching data for user: {}", username, e);
                     return Mono.just(false);
@@ -54,13 +151,51 @@ public class CacheService {
 
     public Mono<Boolean> invalidateCache(String username) {
         String key = CACHE_KEY_PREFIX + username;
+        localCache.invalidate(username);
         return redisTemplate.delete(key)
                 .map(count -> count > 0)
                 .doOnSuccess(result -> {
+                    publishInvalidation(username);
                     if (result) {
                         log.info("Cache invalidated for user: {}",  username);
                     }
                 });
     }
 
+    public Mono<CacheStats> getStats() {
+        com.github.benmanes.caffeine.cache.stats.CacheStats local = localCache.stats();
+        return redisTemplate.execute(connection -> connection.serverCommands().info("stats"))
+                .next()
+                .onErrorReturn(new Properties())
+                .defaultIfEmpty(new Properties())
+                .map(info -> new CacheStats(
+                        localCache.estimatedSize(),
+                        local.hitCount(),
+                        local.missCount(),
+                        local.evictionCount(),
+                        (long) redisHits.count(),
+                        (long) redisMisses.count(),
+                        Long.parseLong(info.getProperty("expired_keys", "0")),
+                        Long.parseLong(info.getProperty("evicted_keys", "0"))));
+    }
+
+    private void publishInvalidation(String username) {
+        redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + ":" + username)
+                .subscribe(null, error -> log.warn("Failed to publish cache invalidation for user: {}", username, error));
+    }
+
+    private void onInvalidation(String message) {
+        int separator = message.indexOf(':');
+        if (separator < 0 || message.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        String username = message.substring(separator + 1);
+        localCache.invalidate(username);
+        log.debug("Local cache entry dropped for user: {} after remote update", username);
+    }
+
+    public record CacheStats(long localSize, long localHits, long localMisses, long localEvictions,
+                             long redisHits, long redisMisses, long redisExpiredKeys, long redisEvictedKeys) {
+    }
+
 }
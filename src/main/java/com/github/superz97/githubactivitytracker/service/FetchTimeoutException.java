@@ -0,0 +1,11 @@
+package com.github.superz97.githubactivitytracker.service;
+
+import java.time.Duration;
+
+public class FetchTimeoutException extends RuntimeException {
+
+    public FetchTimeoutException(String username, Duration stallTimeout) {
+        super("GitHub sent no events for user '" + username + "' within " + stallTimeout.toSeconds() + "s");
+    }
+
+}
@@ -0,0 +1,196 @@
+package com.github.superz97.githubactivitytracker.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+public class GitHubRequestScheduler implements ExchangeFilterFunction, MeterBinder {
+
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    private static final String RESET_HEADER = "X-RateLimit-Reset";
+
+    @Value("${github.rate-limit.reserve:50}")
+    private int reserve;
+
+    @Value("${github.rate-limit.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${github.rate-limit.default-retry-after:60s}")
+    private Duration defaultRetryAfter;
+
+    @Value("${github.rate-limit.max-wait:5m}")
+    private Duration maxWait;
+
+    @Value("${github.rate-limit.reset-spacing:1s}")
+    private Duration resetSpacing;
+
+    private final AtomicLong requestsSent = new AtomicLong();
+    private final AtomicLong rateLimitedResponses = new AtomicLong();
+
+    private int remaining = -1;
+    private Instant resetAt = Instant.EPOCH;
+    private Instant nextSlot = Instant.EPOCH;
+    private Instant blockedUntil = Instant.EPOCH;
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+                    Duration wait = reserveSlot();
+                    Mono<ClientResponse> exchange = next.exchange(request)
+                            .doOnSubscribe(subscription -> requestsSent.incrementAndGet());
+                    if (wait.isZero()) {
+                        return exchange;
+                    }
+                    log.debug("Delaying {} {} by {}ms to stay within the rate limit",
+                            request.method(), request.url().getPath(), wait.toMillis());
+                    return Mono.delay(wait).then(exchange);
+                })
+                .flatMap(this::inspect)
+                .retryWhen(Retry.max(maxRetries)
+                        .filter(throwable -> throwable instanceof RateLimitedException limited && limited.isRetryable())
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("github.ratelimit.remaining", this, GitHubRequestScheduler::getRemaining)
+                .description("Requests left in the current GitHub rate-limit window, -1 until the first response")
+                .register(registry);
+        Gauge.builder("github.ratelimit.reset", this, scheduler -> scheduler.getResetAt().getEpochSecond())
+                .baseUnit("seconds")
+                .register(registry);
+        FunctionCounter.builder("github.requests.sent", requestsSent, AtomicLong::get)
+                .register(registry);
+        FunctionCounter.builder("github.requests.rate.limited", rateLimitedResponses, AtomicLong::get)
+                .register(registry);
+    }
+
+    public long getRequestsSent() {
+        return requestsSent.get();
+    }
+
+    public long getRateLimitedResponses() {
+        return rateLimitedResponses.get();
+    }
+
+    public synchronized int getRemaining() {
+        return remaining;
+    }
+
+    public synchronized Instant getResetAt() {
+        return resetAt;
+    }
+
+    synchronized Duration reserveSlot() {
+        Instant now = Instant.now();
+        if (remaining >= 0 && !resetAt.isAfter(now)) {
+            remaining = -1;
+        }
+        Instant start = latest(now, blockedUntil, nextSlot);
+        if (remaining == 0) {
+            start = latest(start, resetAt);
+        }
+        Duration wait = Duration.between(now, start);
+        if (wait.compareTo(maxWait) > 0) {
+            throw new RateLimitedException(wait);
+        }
+        if (remaining < 0) {
+            nextSlot = start;
+        } else if (remaining == 0) {
+            // The new window's budget is unknown until a response reports it, so requests queued behind the reset
+            // go out one at a time instead of all at once the moment it passes
+            nextSlot = start.plus(resetSpacing);
+        } else {
+            if (remaining <= reserve) {
+                Duration interval = Duration.between(now, resetAt).dividedBy(remaining);
+                nextSlot = start.plus(interval);
+            } else {
+                nextSlot = start;
+            }
+            remaining--;
+        }
+        return wait;
+    }
+
+    private Mono<ClientResponse> inspect(ClientResponse response) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        updateBudget(headers);
+        int status = response.statusCode().value();
+        boolean secondaryLimit = status == HttpStatus.TOO_MANY_REQUESTS.value()
+                || (status == HttpStatus.FORBIDDEN.value()
+                && (headers.getFirst(HttpHeaders.RETRY_AFTER) != null || "0".equals(headers.getFirst(REMAINING_HEADER))));
+        if (!secondaryLimit) {
+            return Mono.just(response);
+        }
+        Duration retryAfter = block(headers);
+        rateLimitedResponses.incrementAndGet();
+        log.warn("GitHub rate limit hit (HTTP {}), pausing requests for {}s", status, retryAfter.toSeconds());
+        return response.releaseBody().then(Mono.error(new RateLimitedException(status, retryAfter)));
+    }
+
+    private synchronized void updateBudget(HttpHeaders headers) {
+        String remainingHeader = headers.getFirst(REMAINING_HEADER);
+        String resetHeader = headers.getFirst(RESET_HEADER);
+        if (remainingHeader == null || resetHeader == null) {
+            return;
+        }
+        try {
+            int reportedRemaining = Integer.parseInt(remainingHeader);
+            Instant reportedReset = Instant.ofEpochSecond(Long.parseLong(resetHeader));
+            if (reportedReset.isAfter(resetAt) || remaining < 0) {
+                remaining = reportedRemaining;
+                resetAt = reportedReset;
+            } else {
+                remaining = Math.min(remaining, reportedRemaining);
+            }
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed rate limit headers: {} / {}", remainingHeader, resetHeader);
+        }
+    }
+
+    private synchronized Duration block(HttpHeaders headers) {
+        Instant now = Instant.now();
+        Duration retryAfter = defaultRetryAfter;
+        String retryAfterHeader = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfterHeader != null) {
+            try {
+                retryAfter = Duration.ofSeconds(Long.parseLong(retryAfterHeader.trim()));
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring malformed Retry-After header: {}", retryAfterHeader);
+            }
+        } else if (remaining == 0 && resetAt.isAfter(now)) {
+            retryAfter = Duration.between(now, resetAt);
+        }
+        blockedUntil = latest(blockedUntil, now.plus(retryAfter));
+        return retryAfter;
+    }
+
+    private static Instant latest(Instant first, Instant... others) {
+        Instant latest = first;
+        for (Instant other : others) {
+            if (other.isAfter(latest)) {
+                latest = other;
+            }
+        }
+        return latest;
+    }
+
+}
@@ -5,38 +5,61 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class GitHubService {
 
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient gitHubWebClient;
 
-    @Value("${github.api.base-url:https://api.github.com}")
-    private String githubApiBaseUrl;
+    private static final int MAX_FEED_EVENTS = 300;
+    private static final int MAX_FEED_PAGES = 10;
+    private static final Pattern LINK_PATTERN = Pattern.compile("<([^>]+)>;\\s*rel=\"(\\w+)\"");
+    private static final String POLL_INTERVAL_HEADER = "X-Poll-Interval";
 
-    @Value("${github.api.token:}")
-    private String githubToken;
+    private final Map<String, ResponseValidators> validators = new ConcurrentHashMap<>();
+    private final Map<String, Duration> pollIntervals = new ConcurrentHashMap<>();
+
+    @Value("${github.api.per-page:100}")
+    private int perPage;
+
+    @Value("${github.api.page-concurrency:3}")
+    private int pageConcurrency;
 
     public Flux<GitHubEvent> getUserActivity(String username) {
-        WebClient webClient = createWebClient();
-        return webClient.get()
-                .uri("/users/{username}/events/public", username)
-                .retrieve()
-                .bodyToFlux(GitHubEvent.class)
-                .retryWhen(Retry.backoff(3, Duration.ofSeconds(2))
-                        .filter(throwable -> throwable instanceof WebClientResponseException &&
-                                ((WebClientResponseException) throwable).getStatusCode().is5xxServerError()))
+        return getUserActivity(username, event -> true);
+    }
+
+    public Flux<GitHubEvent> getUserActivity(String username, Predicate<GitHubEvent> isNew) {
+        ResponseValidators known = validators.get(username);
+        AtomicReference<PageLinks> firstPageLinks = new AtomicReference<>(PageLinks.NONE);
+        AtomicReference<ResponseValidators> received = new AtomicReference<>();
+        return fetchPage(username, 1, known, headers -> {
+                    firstPageLinks.set(PageLinks.from(headers));
+                    received.set(ResponseValidators.from(headers));
+                })
+                .concatWith(Flux.defer(() -> fetchRemainingPages(username, firstPageLinks.get())))
+                .takeWhile(isNew)
+                .doOnComplete(() -> rememberValidators(username, received.get()))
                 .onErrorResume(WebClientResponseException.NotFound.class, e -> {
                     log.error("User not found: {}", username);
                     return Flux.error(new RuntimeException("User '" + username + "' not found on GitHub"));
@@ -46,12 +69,102 @@ public class GitHubService {
                     return Flux.error(new RuntimeException("GitHub API error: " + e.getMessage()));
                 })
                 .doOnNext(event -> log.debug("Fetched event: {} for user: {}", event.getType(), username))
-                .doOnError(error -> log.error("Error fetching activity for user: {}", username, error));
+                .doOnError(error -> !(error instanceof NotModifiedException),
+                        error -> log.error("Error fetching activity for user: {}", username, error));
+    }
+
+    private Flux<GitHubEvent> fetchRemainingPages(String username, PageLinks links) {
+        int pageLimit = maxPages();
+        if (links.lastPage() > 1) {
+            int lastPage = Math.min(links.lastPage(), pageLimit);
+            log.debug("Fetching pages 2..{} for user: {}", lastPage, username);
+            return Flux.range(2, lastPage - 1)
+                    .flatMapSequential(page -> fetchPage(username, page, null, headers -> {}),
+                            pageConcurrency);
+        }
+        if (links.nextPage() > 1) {
+            return followNextPages(username, links.nextPage(), pageLimit);
+        }
+        return Flux.empty();
+    }
+
+    private Flux<GitHubEvent> followNextPages(String username, int page, int pageLimit) {
+        if (page > pageLimit) {
+            return Flux.empty();
+        }
+        AtomicReference<PageLinks> links = new AtomicReference<>(PageLinks.NONE);
+        return fetchPage(username, page, null, headers -> links.set(PageLinks.from(headers)))
+                .concatWith(Flux.defer(() -> links.get().nextPage() > page
+                        ? followNextPages(username, links.get().nextPage(), pageLimit)
+                        : Flux.empty()));
+    }
+
+    private Flux<GitHubEvent> fetchPage(String username, int page,
+                                        ResponseValidators known, Consumer<HttpHeaders> onHeaders) {
+        return gitHubWebClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/users/{username}/events/public")
+                        .queryParam("per_page", perPage)
+                        .queryParam("page", page)
+                        .build(username))
+                .headers(headers -> {
+                    if (known != null) {
+                        known.applyTo(headers);
+                    }
+                })
+                .exchangeToFlux(response -> {
+                    if (page == 1) {
+                        rememberPollInterval(username, response.headers().asHttpHeaders());
+                    }
+                    if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                        log.debug("Activity not modified for user: {}", username);
+                        return response.releaseBody()
+                                .thenMany(Flux.error(new NotModifiedException(username)));
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createException().flatMapMany(Flux::error);
+                    }
+                    onHeaders.accept(response.headers().asHttpHeaders());
+                    return response.bodyToFlux(GitHubEvent.class);
+                })
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(2))
+                        .filter(throwable -> throwable instanceof WebClientResponseException &&
+                                ((WebClientResponseException) throwable).getStatusCode().is5xxServerError()));
+    }
+
+    private int maxPages() {
+        return Math.min(MAX_FEED_PAGES, (MAX_FEED_EVENTS + perPage - 1) / perPage);
+    }
+
+    public Optional<Duration> getPollInterval(String username) {
+        return Optional.ofNullable(pollIntervals.get(username));
+    }
+
+    private void rememberPollInterval(String username, HttpHeaders headers) {
+        String interval = headers.getFirst(POLL_INTERVAL_HEADER);
+        if (interval == null) {
+            return;
+        }
+        try {
+            pollIntervals.put(username, Duration.ofSeconds(Long.parseLong(interval.trim())));
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed {} header: {}", POLL_INTERVAL_HEADER, interval);
+        }
+    }
+
+    public void forgetValidators(String username) {
+        validators.remove(username);
+    }
+
+    private void rememberValidators(String username, ResponseValidators received) {
+        if (received == null || received.isEmpty()) {
+            validators.remove(username);
+        } else {
+            validators.put(username, received);
+        }
     }
 
     public Mono<Boolean> validateUser(String username) {
-        WebClient webClient = createWebClient();
-        return webClient.get()
+        return gitHubWebClient.get()
                 .uri("/users/{username}", username)
                 .retrieve()
                 .toBodilessEntity()
@@ -60,17 +173,54 @@ public class GitHubService {
                 .onErrorReturn(false);
     }
 
-    private WebClient createWebClient() {
-        return webClientBuilder
-                .baseUrl(githubApiBaseUrl)
-                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                .defaultHeaders(headers -> {
-                    if (!githubToken.isEmpty()) {
-                        headers.setBearerAuth(githubToken);
-                    }
-                })
-                .build();
+    private record PageLinks(int nextPage, int lastPage) {
+
+        static final PageLinks NONE = new PageLinks(0, 0);
+
+        static PageLinks from(HttpHeaders headers) {
+            String link = headers.getFirst(HttpHeaders.LINK);
+            if (link == null) {
+                return NONE;
+            }
+            int next = 0;
+            int last = 0;
+            Matcher matcher = LINK_PATTERN.matcher(link);
+            while (matcher.find()) {
+                String page = UriComponentsBuilder.fromUriString(matcher.group(1))
+                        .build()
+                        .getQueryParams()
+                        .getFirst("page");
+                if (page == null) {
+                    continue;
+                }
+                switch (matcher.group(2)) {
+                    case "next" -> next = Integer.parseInt(page);
+                    case "last" -> last = Integer.parseInt(page);
+                    default -> { }
+                }
+            }
+            return new PageLinks(next, last);
+        }
+    }
+
+    private record ResponseValidators(String etag, String lastModified) {
+
+        static ResponseValidators from(HttpHeaders headers) {
+            return new ResponseValidators(headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED));
+        }
+
+        boolean isEmpty() {
+            return etag == null && lastModified == null;
+        }
 
+        void applyTo(HttpHeaders headers) {
+            if (etag != null) {
+                headers.setIfNoneMatch(etag);
+            }
+            if (lastModified != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+            }
+        }
     }
 
 }
@@ -0,0 +1,9 @@
+package com.github.superz97.githubactivitytracker.service;
+
+public class NotModifiedException extends RuntimeException {
+
+    public NotModifiedException(String username) {
+        super("Activity for user '" + username + "' has not changed since the last fetch");
+    }
+
+}
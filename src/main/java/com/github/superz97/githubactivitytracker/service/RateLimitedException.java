@@ -0,0 +1,24 @@
+package com.github.superz97.githubactivitytracker.service;
+
+import java.time.Duration;
+
+public class RateLimitedException extends RuntimeException {
+
+    private final boolean retryable;
+
+    public RateLimitedException(int status, Duration retryAfter) {
+        super("GitHub API rate limit hit (HTTP " + status + "), retry after " + retryAfter.toSeconds() + "s");
+        this.retryable = true;
+    }
+
+    // Raised before anything is sent, when the next free slot is further away than the caller is allowed to wait
+    public RateLimitedException(Duration wait) {
+        super("GitHub API rate limit exhausted, the next request could only be sent in " + wait.toSeconds() + "s");
+        this.retryable = false;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+}
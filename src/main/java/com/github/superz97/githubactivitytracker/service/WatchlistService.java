@@ -0,0 +1,233 @@
+package com.github.superz97.githubactivitytracker.service;
+
+import com.github.superz97.githubactivitytracker.entity.WatchedUser;
+import com.github.superz97.githubactivitytracker.repository.WatchedUserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WatchlistService {
+
+    private static final Duration BUDGET_WINDOW = Duration.ofHours(1);
+    private static final Duration TICK_TIMEOUT = Duration.ofMinutes(5);
+
+    private final WatchedUserRepository watchedUserRepository;
+    private final ActivityService activityService;
+    private final GitHubService gitHubService;
+    private final GitHubRequestScheduler requestScheduler;
+    private final Scheduler blockingScheduler;
+
+    @Value("${watchlist.enabled:true}")
+    private boolean enabled;
+
+    @Value("${watchlist.tick:15s}")
+    private Duration tick;
+
+    @Value("${watchlist.concurrency:4}")
+    private int concurrency;
+
+    @Value("${watchlist.batch-size:50}")
+    private int batchSize;
+
+    @Value("${watchlist.min-interval:60s}")
+    private Duration minInterval;
+
+    @Value("${watchlist.max-interval:30m}")
+    private Duration maxInterval;
+
+    @Value("${watchlist.backoff-multiplier:2.0}")
+    private double backoffMultiplier;
+
+    @Value("${watchlist.request-budget:1000}")
+    private long requestBudget;
+
+    @Value("${watchlist.min-remaining:200}")
+    private int minRemaining;
+
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong failedPolls = new AtomicLong();
+    private final AtomicLong skippedTicks = new AtomicLong();
+    private final AtomicLong spentInWindow = new AtomicLong();
+    private volatile Instant budgetWindowStart = Instant.now();
+
+    // A tick can block for up to TICK_TIMEOUT, so it runs on its own thread rather than Spring's single scheduling
+    // thread, where it would hold up partition maintenance and the metrics dump
+    private ScheduledExecutorService poller;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("watchlist-poller")
+                .daemon(true)
+                .factory());
+        poller.scheduleWithFixedDelay(this::runTick, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    public Mono<Boolean> watch(String username) {
+        return Mono.fromCallable(() -> {
+                    if (watchedUserRepository.existsById(username)) {
+                        return false;
+                    }
+                    LocalDateTime now = LocalDateTime.now();
+                    WatchedUser user = new WatchedUser();
+                    user.setUsername(username);
+                    user.setAddedAt(now);
+                    user.setNextPollAt(now);
+                    user.setPollIntervalSeconds(minInterval.toSeconds());
+                    watchedUserRepository.save(user);
+                    return true;
+                })
+                .subscribeOn(blockingScheduler);
+    }
+
+    public Mono<Boolean> unwatch(String username) {
+        return Mono.fromCallable(() -> {
+                    if (!watchedUserRepository.existsById(username)) {
+                        return false;
+                    }
+                    watchedUserRepository.deleteById(username);
+                    return true;
+                })
+                .subscribeOn(blockingScheduler);
+    }
+
+    public Mono<List<WatchedUser>> getWatchedUsers() {
+        return Mono.fromCallable(watchedUserRepository::findAllByOrderByNextPollAt)
+                .subscribeOn(blockingScheduler);
+    }
+
+    // An exception escaping a fixed-delay task cancels every later run
+    private void runTick() {
+        try {
+            pollDueUsers();
+        } catch (Exception e) {
+            log.warn("Watchlist tick failed: {}", e.getMessage());
+        }
+    }
+
+    void pollDueUsers() {
+        long allowance = remainingBudget();
+        if (allowance <= 0) {
+            skippedTicks.incrementAndGet();
+            log.debug("Watchlist poll skipped, request budget exhausted (remaining rate limit: {})",
+                    requestScheduler.getRemaining());
+            return;
+        }
+        List<WatchedUser> due = watchedUserRepository.findByNextPollAtLessThanEqualOrderByNextPollAt(
+                LocalDateTime.now(), Limit.of((int) Math.min(batchSize, allowance)));
+        if (due.isEmpty()) {
+            return;
+        }
+        long sentBefore = requestScheduler.getRequestsSent();
+        try {
+            Flux.fromIterable(due)
+                    .flatMap(this::poll, concurrency)
+                    .then()
+                    .block(TICK_TIMEOUT);
+        } finally {
+            // Counts every request sent during the tick, interactive ones included, so the budget errs on the safe side
+            spentInWindow.addAndGet(requestScheduler.getRequestsSent() - sentBefore);
+        }
+        log.debug("Polled {} watched users", due.size());
+    }
+
+    private Mono<Void> poll(WatchedUser user) {
+        String username = user.getUsername();
+        return activityService.refreshActivity(username)
+                .doOnNext(active -> polls.incrementAndGet())
+                .onErrorResume(error -> {
+                    failedPolls.incrementAndGet();
+                    log.warn("Watchlist poll failed for user: {}: {}", username, error.getMessage());
+                    return Mono.just(false);
+                })
+                .map(active -> reschedule(user, active))
+                .flatMap(updated -> Mono.fromCallable(() -> watchedUserRepository.updateSchedule(updated))
+                        .subscribeOn(blockingScheduler))
+                .doOnNext(rows -> {
+                    if (rows == 0) {
+                        log.debug("User: {} was unwatched during its poll, not rescheduling", username);
+                    }
+                })
+                .then();
+    }
+
+    private WatchedUser reschedule(WatchedUser user, boolean active) {
+        Duration floor = gitHubService.getPollInterval(user.getUsername())
+                .filter(interval -> interval.compareTo(minInterval) > 0)
+                .orElse(minInterval);
+        Duration current = Duration.ofSeconds(user.getPollIntervalSeconds());
+        Duration next;
+        if (active) {
+            next = floor;
+            user.setQuietPolls(0);
+        } else {
+            Duration backedOff = Duration.ofMillis((long) (current.toMillis() * backoffMultiplier));
+            next = backedOff.compareTo(maxInterval) > 0 ? maxInterval : backedOff;
+            next = next.compareTo(floor) < 0 ? floor : next;
+            user.setQuietPolls(user.getQuietPolls() + 1);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // Up to 10% jitter keeps users added together from polling in lockstep
+        long jitterMillis = ThreadLocalRandom.current().nextLong(next.toMillis() / 10 + 1);
+        user.setPollIntervalSeconds(next.toSeconds());
+        user.setLastPolledAt(now);
+        if (active) {
+            user.setLastActivityAt(now);
+        }
+        user.setNextPollAt(now.plus(next).plusNanos(jitterMillis * 1_000_000));
+        return user;
+    }
+
+    private long remainingBudget() {
+        Instant now = Instant.now();
+        if (now.isAfter(budgetWindowStart.plus(BUDGET_WINDOW))) {
+            budgetWindowStart = now;
+            spentInWindow.set(0);
+        }
+        int rateLimitRemaining = requestScheduler.getRemaining();
+        if (rateLimitRemaining >= 0 && rateLimitRemaining < minRemaining) {
+            return 0;
+        }
+        return requestBudget - spentInWindow.get();
+    }
+
+    public WatchlistStats getStats() {
+        return new WatchlistStats(polls.get(), failedPolls.get(), skippedTicks.get(),
+                spentInWindow.get(), requestBudget, budgetWindowStart.plus(BUDGET_WINDOW));
+    }
+
+    public record WatchlistStats(long polls, long failedPolls, long skippedTicks,
+                                 long requestsSpent, long requestBudget, Instant budgetResetsAt) {
+    }
+
+}
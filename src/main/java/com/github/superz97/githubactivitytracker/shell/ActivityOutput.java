@@ -0,0 +1,189 @@
+package com.github.superz97.githubactivitytracker.shell;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.superz97.githubactivitytracker.format.EventFormatterRegistry;
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import lombok.RequiredArgsConstructor;
+import org.jline.terminal.Attributes;
+import org.jline.terminal.Terminal;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+@Component
+@RequiredArgsConstructor
+public class ActivityOutput {
+
+    private static final String CSV_HEADER = "event_id,event_type,created_at,actor,repository,description";
+
+    private final Terminal terminal;
+    private final ObjectMapper objectMapper;
+    private final EventFormatterRegistry formatterRegistry;
+
+    public EventWriter open(String format, String output, int pageSize) throws IOException {
+        Format resolved = Format.parse(format);
+        boolean toTerminal = output == null;
+        Writer target = toTerminal ? terminal.writer() : Files.newBufferedWriter(Path.of(output));
+        return switch (resolved) {
+            case TEXT -> new TextWriter(target, toTerminal, toTerminal && !Terminal.TYPE_DUMB.equals(terminal.getType()) ? pageSize : 0);
+            case NDJSON -> new NdjsonWriter(target, toTerminal);
+            case CSV -> new CsvWriter(target, toTerminal);
+        };
+    }
+
+    public enum Format {
+        TEXT, NDJSON, CSV;
+
+        static Format parse(String value) {
+            try {
+                return Format.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown format '" + value + "', expected text, ndjson or csv");
+            }
+        }
+    }
+
+    public abstract static class EventWriter implements AutoCloseable {
+
+        protected final PrintWriter out;
+        private final boolean sharedTerminal;
+        private int written;
+
+        EventWriter(Writer target, boolean sharedTerminal) {
+            this.out = target instanceof PrintWriter printWriter ? printWriter : new PrintWriter(new BufferedWriter(target));
+            this.sharedTerminal = sharedTerminal;
+        }
+
+        // Returns false once the reader asked to stop
+        public boolean write(GitHubEvent event) {
+            written++;
+            writeEvent(event, written);
+            if (sharedTerminal) {
+                out.flush();
+            }
+            return true;
+        }
+
+        public int getWritten() {
+            return written;
+        }
+
+        public boolean isText() {
+            return false;
+        }
+
+        protected abstract void writeEvent(GitHubEvent event, int index);
+
+        @Override
+        public void close() {
+            out.flush();
+            if (!sharedTerminal) {
+                out.close();
+            }
+        }
+    }
+
+    private final class TextWriter extends EventWriter {
+
+        private final int pageSize;
+
+        TextWriter(Writer target, boolean sharedTerminal, int pageSize) {
+            super(target, sharedTerminal);
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public boolean write(GitHubEvent event) {
+            super.write(event);
+            if (pageSize > 0 && getWritten() % pageSize == 0) {
+                return awaitNextPage();
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isText() {
+            return true;
+        }
+
+        @Override
+        protected void writeEvent(GitHubEvent event, int index) {
+            out.printf("%2d. ", index);
+            try {
+                formatterRegistry.formatTo(event, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            out.println();
+        }
+
+        private boolean awaitNextPage() {
+            out.print("── more: Enter to continue, q to stop ──");
+            out.flush();
+            Attributes previous = terminal.enterRawMode();
+            try {
+                int key = terminal.reader().read();
+                return key != 'q' && key != 'Q' && key >= 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                terminal.setAttributes(previous);
+                out.print("\r\u001B[2K");
+                out.flush();
+            }
+        }
+    }
+
+    private final class NdjsonWriter extends EventWriter {
+
+        NdjsonWriter(Writer target, boolean sharedTerminal) {
+            super(target, sharedTerminal);
+        }
+
+        @Override
+        protected void writeEvent(GitHubEvent event, int index) {
+            try {
+                out.println(objectMapper.writeValueAsString(event.toDisplayProjection(formatterRegistry.format(event))));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private final class CsvWriter extends EventWriter {
+
+        CsvWriter(Writer target, boolean sharedTerminal) {
+            super(target, sharedTerminal);
+            out.println(CSV_HEADER);
+        }
+
+        @Override
+        protected void writeEvent(GitHubEvent event, int index) {
+            out.println(String.join(",",
+                    csv(event.getId()),
+                    csv(event.getType()),
+                    csv(event.getCreatedAt() != null ? event.getCreatedAt().toString() : null),
+                    csv(event.getActor() != null ? event.getActor().getLogin() : null),
+                    csv(event.getRepo() != null ? event.getRepo().getName() : null),
+                    csv(formatterRegistry.format(event))));
+        }
+
+        private static String csv(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+                return "\"" + value.replace("\"", "\"\"") + "\"";
+            }
+            return value;
+        }
+    }
+
+}
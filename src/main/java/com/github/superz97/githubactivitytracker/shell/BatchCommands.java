@@ -0,0 +1,145 @@
+package com.github.superz97.githubactivitytracker.shell;
+
+import com.github.superz97.githubactivitytracker.format.EventFormatterRegistry;
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import com.github.superz97.githubactivitytracker.repository.ActivitySummary;
+import com.github.superz97.githubactivitytracker.service.ActivityService;
+import com.github.superz97.githubactivitytracker.service.BatchRunner;
+import com.github.superz97.githubactivitytracker.service.BatchRunner.BatchReport;
+import com.github.superz97.githubactivitytracker.service.BatchRunner.BatchResult;
+import com.github.superz97.githubactivitytracker.service.GitHubService;
+import lombok.RequiredArgsConstructor;
+import org.jline.terminal.Terminal;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+@ShellComponent
+@RequiredArgsConstructor
+public class BatchCommands {
+
+    private static final String USERS_HELP = "Comma or space separated GitHub usernames";
+    private static final String FILE_HELP = "File with one GitHub username per line (# starts a comment)";
+
+    private final ActivityService activityService;
+    private final GitHubService gitHubService;
+    private final BatchRunner batchRunner;
+    private final EventFormatterRegistry formatterRegistry;
+    private final Terminal terminal;
+    private final CommandObserver commandObserver;
+
+    @ShellMethod(value = "Fetch activity for many users at once", key = {"batch-activity", "ba"})
+    public String batchActivity(
+            @ShellOption(help = USERS_HELP, defaultValue = ShellOption.NULL) String users,
+            @ShellOption(help = FILE_HELP, defaultValue = ShellOption.NULL) String file,
+            @ShellOption(help = "Maximum number of events to display per user", defaultValue = "3") int limit,
+            @ShellOption(help = "Force refresh from GitHub API", defaultValue = "false") boolean refresh
+    ) {
+        return commandObserver.observe("batch-activity", () -> runBatch("📊 Batch activity", users, file,
+                username -> activityService.getUserActivity(username, refresh).take(limit).collectList(),
+                (result, out) -> {
+                    List<GitHubEvent> events = result.value();
+                    out.append(events.isEmpty() ? " no activity" : " " + events.size() + " events").append("\n");
+                    events.forEach(event -> out.append("     ").append(formatterRegistry.format(event)).append("\n"));
+                }));
+    }
+
+    @ShellMethod(value = "Show activity summaries for many users at once", key = {"batch-summary", "bs"})
+    public String batchSummary(
+            @ShellOption(help = USERS_HELP, defaultValue = ShellOption.NULL) String users,
+            @ShellOption(help = FILE_HELP, defaultValue = ShellOption.NULL) String file,
+            @ShellOption(help = "Number of days to summarize, ending today", defaultValue = "30") int days
+    ) {
+        return commandObserver.observe("batch-summary", () -> {
+            LocalDate end = LocalDate.now();
+            LocalDate start = end.minusDays(days - 1L);
+            return runBatch("📈 Batch summary (" + start + " → " + end + ")", users, file,
+                    username -> activityService.getSummary(username, start, end, 1),
+                    (result, out) -> {
+                        ActivitySummary summary = result.value();
+                        if (summary.isEmpty()) {
+                            out.append(" no stored activity\n");
+                            return;
+                        }
+                        out.append(String.format(" %d events, top type: %s, top repo: %s, %d repos%n",
+                                summary.totalEvents(),
+                                summary.byType().get(0).key(),
+                                summary.topRepositories().get(0).key(),
+                                summary.repositoryCount()));
+                    });
+        });
+    }
+
+    @ShellMethod(value = "Validate many GitHub usernames at once", key = {"batch-validate", "bv"})
+    public String batchValidate(
+            @ShellOption(help = USERS_HELP, defaultValue = ShellOption.NULL) String users,
+            @ShellOption(help = FILE_HELP, defaultValue = ShellOption.NULL) String file
+    ) {
+        return commandObserver.observe("batch-validate", () -> runBatch("🔎 Batch validate", users, file,
+                gitHubService::validateUser,
+                (result, out) -> out.append(result.value() ? " exists" : " not found on GitHub").append("\n")));
+    }
+
+    private <T> String runBatch(String title, String users, String file,
+                                Function<String, Mono<T>> task, ResultRenderer<T> renderer) {
+        List<String> usernames;
+        try {
+            usernames = batchRunner.resolveUsernames(users, file);
+        } catch (Exception e) {
+            return "❌ Error reading usernames: " + e.getMessage();
+        }
+        if (usernames.isEmpty()) {
+            return "❌ No usernames given, use --users or --file";
+        }
+        print("\n" + title + " for " + usernames.size() + " users\n" + "═".repeat(60) + "\n");
+        try {
+            BatchRunner.Baseline baseline = batchRunner.baseline().block(Duration.ofSeconds(5));
+            List<BatchResult<T>> results = new ArrayList<>();
+            // Each user is printed as soon as it completes, the slowest one no longer holds back the rest
+            for (BatchResult<T> result : batchRunner.run(usernames, task).toIterable()) {
+                results.add(result);
+                StringBuilder out = new StringBuilder();
+                out.append(result.isSuccess() ? "✅ " : "❌ ")
+                        .append(String.format("%-25s %6dms", result.username(), result.elapsed().toMillis()));
+                if (result.isSuccess()) {
+                    renderer.render(result, out);
+                } else {
+                    out.append(" ").append(result.error()).append("\n");
+                }
+                print(out.toString());
+            }
+            BatchReport report = batchRunner.report(baseline, results).block(Duration.ofSeconds(5));
+            return formatReport(report);
+        } catch (Exception e) {
+            return "❌ Error: " + e.getMessage();
+        }
+    }
+
+    private String formatReport(BatchReport report) {
+        return "═".repeat(60) + "\n" +
+                String.format("⏱️ %d users in %dms (%d failed)%n",
+                        report.users(), report.wallTime().toMillis(), report.failures()) +
+                String.format("   p50: %dms, p99: %dms, slowest: %dms%n",
+                        report.p50().toMillis(), report.p99().toMillis(), report.slowest().toMillis()) +
+                String.format("   cache hits: %d, cache misses: %d, GitHub API calls: %d%n",
+                        report.cacheHits(), report.cacheMisses(), report.apiCalls());
+    }
+
+    private void print(String text) {
+        terminal.writer().print(text);
+        terminal.writer().flush();
+    }
+
+    @FunctionalInterface
+    private interface ResultRenderer<T> {
+        void render(BatchResult<T> result, StringBuilder out);
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.github.superz97.githubactivitytracker.shell;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+@Component
+@RequiredArgsConstructor
+public class CommandObserver {
+
+    private final ObservationRegistry observationRegistry;
+
+    // Times the whole command as shell.command{command=...} and makes it the parent span of the work it triggers
+    public String observe(String command, Supplier<String> body) {
+        return Observation.createNotStarted("shell.command", observationRegistry)
+                .lowCardinalityKeyValue("command", command)
+                .observe(body);
+    }
+
+}
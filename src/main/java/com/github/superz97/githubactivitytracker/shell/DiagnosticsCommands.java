@@ -0,0 +1,77 @@
+package com.github.superz97.githubactivitytracker.shell;
+
+import com.github.superz97.githubactivitytracker.config.ConnectionPoolMetricsRegistrar;
+import com.github.superz97.githubactivitytracker.config.ConnectionPoolMetricsRegistrar.PoolStats;
+import com.github.superz97.githubactivitytracker.service.ActivityWriteBehindQueue;
+import com.github.superz97.githubactivitytracker.service.CacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+
+import java.time.Duration;
+import java.util.List;
+
+@ShellComponent
+@RequiredArgsConstructor
+public class DiagnosticsCommands {
+
+    private final ConnectionPoolMetricsRegistrar poolMetrics;
+    private final CacheService cacheService;
+    private final ActivityWriteBehindQueue writeBehindQueue;
+    private final CommandObserver commandObserver;
+
+    @ShellMethod(value = "Show HTTP connection pool statistics", key = {"pool-stats"})
+    public String showPoolStats() {
+        return commandObserver.observe("pool-stats", () -> {
+            StringBuilder result = new StringBuilder();
+            result.append("\n🔌 HTTP connection pools\n");
+            result.append("═".repeat(60)).append("\n");
+            List<PoolStats> pools = poolMetrics.snapshot();
+            if (pools.isEmpty()) {
+                result.append("ℹ️ No connections opened yet\n");
+                return result.toString();
+            }
+            pools.forEach(pool -> result.append(String.format(
+                    "  %s -> %s%n    active: %d, idle: %d, pending acquires: %d, allocated: %d/%d%n",
+                    pool.name(), pool.remoteAddress(), pool.active(), pool.idle(),
+                    pool.pendingAcquires(), pool.allocated(), pool.maxConnections())));
+            return result.toString();
+        });
+    }
+
+    @ShellMethod(value = "Show activity cache statistics", key = {"cache-stats"})
+    public String showCacheStats() {
+        return commandObserver.observe("cache-stats", () -> {
+            try {
+                CacheService.CacheStats stats = cacheService.getStats().block(Duration.ofSeconds(5));
+                if (stats == null) {
+                    return "❌ Cache statistics unavailable";
+                }
+                return "\n🗄️ Activity cache\n" +
+                        "═".repeat(60) + "\n" +
+                        String.format("  %-8s size: %d, hits: %d, misses: %d, evictions: %d%n",
+                                "local", stats.localSize(), stats.localHits(), stats.localMisses(), stats.localEvictions()) +
+                        String.format("  %-8s hits: %d, misses: %d, expired keys: %d, evicted keys: %d%n",
+                                "redis", stats.redisHits(), stats.redisMisses(), stats.redisExpiredKeys(), stats.redisEvictedKeys());
+            } catch (Exception e) {
+                return "❌ Error reading cache statistics: " + e.getMessage();
+            }
+        });
+    }
+
+    @ShellMethod(value = "Show write-behind persistence statistics", key = {"write-stats"})
+    public String showWriteStats() {
+        return commandObserver.observe("write-stats", () -> {
+            ActivityWriteBehindQueue.WriteBehindStats stats = writeBehindQueue.getStats();
+            return "\n💾 Write-behind queue\n" +
+                    "═".repeat(60) + "\n" +
+                    String.format("  queue depth: %d/%d%n", stats.queueDepth(), stats.capacity()) +
+                    String.format("  enqueued: %d, written: %d, batches: %d, failed batches: %d%n",
+                            stats.enqueued(), stats.written(), stats.batches(), stats.failedBatches()) +
+                    String.format("  spilled: %d, dropped: %d%n", stats.spilled(), stats.dropped()) +
+                    String.format("  last batch: %d records in %dms (max flush %dms)%n",
+                            stats.lastBatchSize(), stats.lastFlushMillis(), stats.maxFlushMillis());
+        });
+    }
+
+}
@@ -1,187 +1,290 @@
 package com.github.superz97.githubactivitytracker.shell;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import com.github.superz97.githubactivitytracker.repository.ActivityRecordView;
+import com.github.superz97.githubactivitytracker.repository.ActivitySummary;
+import com.github.superz97.githubactivitytracker.repository.HistoryPosition;
 import com.github.superz97.githubactivitytracker.service.ActivityService;
 import com.github.superz97.githubactivitytracker.service.CacheService;
+import com.github.superz97.githubactivitytracker.service.FetchTimeoutException;
 import com.github.superz97.githubactivitytracker.service.GitHubService;
 import lombok.RequiredArgsConstructor;
+import org.jline.terminal.Terminal;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
 import org.springframework.shell.standard.ShellOption;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
 
 @ShellComponent
 @RequiredArgsConstructor
 public class GitHubCommands {
 
+    private static final int SUMMARY_DEFAULT_DAYS = 30;
+    private static final int SUMMARY_TOP = 5;
+    private static final Duration FIRST_EVENT_TIMEOUT = Duration.ofSeconds(30);
+
     private final ActivityService activityService;
     private final GitHubService gitHubService;
     private final CacheService cacheService;
+    private final ObjectMapper objectMapper;
+    private final ActivityOutput activityOutput;
+    private final Terminal terminal;
+    private final CommandObserver commandObserver;
 
     @ShellMethod(value = "Fetch and display GitHub user activity", key = {"activity", "a"})
     public String fetchActivity(
             @ShellOption(help = "GitHub username") String username,
-            @ShellOption(help = "Maximum number of events to display", defaultValue = "10") int limit,
-            @ShellOption(help = "Force refresh from GitHub API", defaultValue = "false") boolean refresh
+            @ShellOption(help = "Maximum number of events to display, 0 for all", defaultValue = "10") int limit,
+            @ShellOption(help = "Force refresh from GitHub API", defaultValue = "false") boolean refresh,
+            @ShellOption(help = "Stream all stored history instead of the recent feed", defaultValue = "false") boolean history,
+            @ShellOption(help = "Output format: text, ndjson or csv", defaultValue = "text") String format,
+            @ShellOption(help = "Write to this file instead of the terminal", defaultValue = ShellOption.NULL) String output,
+            @ShellOption(value = "--page-size", help = "Pause after this many lines in text mode, 0 to disable", defaultValue = "0") int pageSize
     ) {
-        StringBuilder result = new StringBuilder();
-        result.append("\n📊 Fetching activity for user: ").append(username).append("\n");
-        result.append("═".repeat(60)).append("\n");
-        try {
-            AtomicInteger counter = new AtomicInteger();
-            activityService.getUserActivity(username, refresh)
-                    .take(limit)
-                    .doOnNext(event -> {
-                        int count = counter.incrementAndGet();
-                        result.append(String.format("%2d. ", count));
-                        result.append(event.getFormattedActivity()).append("\n");
-                    })
-                    .blockLast(Duration.ofSeconds(30));
-            if (counter.get() == 0) {
-                result.append("❌ No activity found for user: ").append(username).append("\n");
-            } else {
-                result.append("═".repeat(60)).append("\n");
-                result.append("✅ Total events displayed: ").append(counter.get()).append("\n");
-                if (!refresh) {
-                    result.append("💡 Tip: Use --refresh flag to force fetch from GitHub\n");
-                }
-            }
-        } catch (Exception e) {
-            result.append("❌ Error: ").append(e.getMessage()).append("\n");
-            result.append("💡 Please check the username and try again\n");
-        }
-        return result.toString();
+        return commandObserver.observe("activity", () -> {
+            Flux<GitHubEvent> events = history
+                    ? activityService.streamStoredActivity(username)
+                    : activityService.getUserActivity(username, refresh);
+            return streamEvents(events, limit, format, output, pageSize,
+                    "\n📊 Fetching activity for user: " + username,
+                    "❌ No activity found for user: " + username,
+                    written -> "✅ Total events displayed: " + written + "\n"
+                            + (refresh || history ? "" : "💡 Tip: Use --refresh flag to force fetch from GitHub\n"),
+                    "💡 Please check the username and try again\n");
+        });
     }
 
     @ShellMethod(value = "Filter activity by event type", key = {"filter", "f"})
     public String filterActivity(
             @ShellOption(help = "GitHub username") String username,
             @ShellOption(help = "Event type (e.g., PushEvent, CreateEvent, IssuesEvent)") String eventType,
-            @ShellOption(help = "Maximum number of events to display", defaultValue = "10") int limit
+            @ShellOption(help = "Maximum number of events to display, 0 for all", defaultValue = "10") int limit,
+            @ShellOption(help = "Output format: text, ndjson or csv", defaultValue = "text") String format,
+            @ShellOption(help = "Write to this file instead of the terminal", defaultValue = ShellOption.NULL) String output,
+            @ShellOption(value = "--page-size", help = "Pause after this many lines in text mode, 0 to disable", defaultValue = "0") int pageSize
     ) {
-        StringBuilder result = new StringBuilder();
-        result.append("\n🔍 Filtering ").append(eventType).append(" events for: ").append(username).append("\n");
-        result.append("═".repeat(60)).append("\n");
-        try {
-            AtomicInteger counter = new AtomicInteger(0);
-            activityService.getFilteredActivity(username, eventType)
-                    .take(limit)
-                    .doOnNext(event -> {
-                        int count = counter.incrementAndGet();
-                        result.append(String.format("%2d. ", count));
-                        result.append(event.getFormattedActivity()).append("\n");
-                    })
-                    .blockLast(Duration.ofSeconds(30));
-            if (counter.get() == 0) {
-                result.append("❌ No ").append(eventType).append(" events found for user: ").append(username).append("\n");
-            } else {
-                result.append("═".repeat(60)).append("\n");
-                result.append("✅ Total ").append(eventType).append(" events: ").append(counter.get()).append("\n");
+        return commandObserver.observe("filter", () -> streamEvents(
+                activityService.getFilteredActivity(username, eventType), limit, format, output, pageSize,
+                "\n🔍 Filtering " + eventType + " events for: " + username,
+                "❌ No " + eventType + " events found for user: " + username,
+                written -> "✅ Total " + eventType + " events: " + written + "\n",
+                ""));
+    }
+
+    // Events are written as they arrive; nothing is accumulated beyond the writer's buffer
+    private String streamEvents(Flux<GitHubEvent> events, int limit, String format, String output, int pageSize,
+                                String header, String emptyMessage, IntFunction<String> footer, String errorHint) {
+        Flux<GitHubEvent> limited = limit > 0 ? events.take(limit) : events;
+        // Only the wait for the first event is bounded here; later gaps include the user sitting at the pager prompt.
+        // Gaps between events coming from GitHub are bounded inside ActivityService, ahead of any consumer. A
+        // page-sized prefetch keeps the history reader from running far ahead of what has been shown
+        Flux<GitHubEvent> bounded = limited.timeout(Mono.delay(FIRST_EVENT_TIMEOUT), event -> Mono.never(),
+                Flux.error(new TimeoutException("no events within " + FIRST_EVENT_TIMEOUT.toSeconds() + "s")));
+        try (ActivityOutput.EventWriter writer = activityOutput.open(format, output, pageSize);
+             Stream<GitHubEvent> stream = pageSize > 0 ? bounded.toStream(pageSize) : bounded.toStream()) {
+            if (writer.isText()) {
+                printLine(header);
+                printLine("═".repeat(60));
+            }
+            Iterator<GitHubEvent> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                if (!writer.write(iterator.next())) {
+                    break;
+                }
+            }
+            if (!writer.isText()) {
+                return output != null ? "✅ Wrote " + writer.getWritten() + " events to " + output : null;
             }
+            if (writer.getWritten() == 0) {
+                return emptyMessage;
+            }
+            return "═".repeat(60) + "\n" + footer.apply(writer.getWritten());
         } catch (Exception e) {
-            result.append("❌ Error: ").append(e.getMessage()).append("\n");
+            Throwable cause = Exceptions.unwrap(e);
+            if (cause instanceof TimeoutException || cause instanceof FetchTimeoutException) {
+                return "⏱️ Timed out: " + cause.getMessage() + "\n" + errorHint;
+            }
+            return "❌ Error: " + e.getMessage() + "\n" + errorHint;
         }
-        return result.toString();
+    }
+
+    private void printLine(String line) {
+        terminal.writer().println(line);
+        terminal.writer().flush();
+    }
+
+    @ShellMethod(value = "Page through stored activity history", key = {"history", "hi"})
+    public String showHistory(
+            @ShellOption(help = "GitHub username") String username,
+            @ShellOption(help = "Number of events per page", defaultValue = "20") int size,
+            @ShellOption(help = "Position token printed by the previous page", defaultValue = ShellOption.NULL) String before
+    ) {
+        return commandObserver.observe("history", () -> {
+            StringBuilder result = new StringBuilder();
+            result.append("\n📜 Activity history for: ").append(username).append("\n");
+            result.append("═".repeat(60)).append("\n");
+            try {
+                HistoryPosition position = before != null ? HistoryPosition.parse(before) : null;
+                List<ActivityRecordView> page = activityService.getHistoryPage(username, position, size)
+                        .block(Duration.ofSeconds(10));
+                if (page == null || page.isEmpty()) {
+                    result.append("❌ No more stored history for user: ").append(username).append("\n");
+                    return result.toString();
+                }
+                page.forEach(record -> result.append("  ").append(record.description()).append("\n"));
+                result.append("═".repeat(60)).append("\n");
+                if (page.size() == size) {
+                    ActivityRecordView last = page.get(page.size() - 1);
+                    HistoryPosition next = new HistoryPosition(last.eventTime(), last.eventId());
+                    result.append("➡️ Next page: history ").append(username)
+                            .append(" --size ").append(size)
+                            .append(" --before ").append(next.toToken()).append("\n");
+                } else {
+                    result.append("✅ End of history\n");
+                }
+            } catch (Exception e) {
+                result.append("❌ Error: ").append(e.getMessage()).append("\n");
+            }
+            return result.toString();
+        });
     }
 
     @ShellMethod(value = "Show event types for a user", key = {"types", "t"})
     public String showEventTypes(@ShellOption(help = "GitHub username") String username) {
-        StringBuilder result = new StringBuilder();
-        result.append("\n📋 Available event types for: ").append(username).append("\n");
-        result.append("═".repeat(60)).append("\n");
-        try {
-            List<String> eventTypes = activityService.getAvailableEventTypes(username)
-                    .block(Duration.ofSeconds(10));
-            if (eventTypes == null || eventTypes.isEmpty()) {
-                // Fetch fresh data if no historical data exists
-                activityService.getUserActivity(username, true)
-                        .collectList()
+        return commandObserver.observe("types", () -> {
+            StringBuilder result = new StringBuilder();
+            result.append("\n📋 Available event types for: ").append(username).append("\n");
+            result.append("═".repeat(60)).append("\n");
+            try {
+                List<String> eventTypes = activityService.getAvailableEventTypes(username)
                         .block(Duration.ofSeconds(30));
-                eventTypes = activityService.getAvailableEventTypes(username)
-                        .block(Duration.ofSeconds(10));
-            }
-            if (eventTypes != null && !eventTypes.isEmpty()) {
-                eventTypes.forEach(type -> result.append("  • ").append(type).append("\n"));
-                result.append("═".repeat(60)).append("\n");
-                result.append("💡 Use 'filter <username> <event-type>' to filter by type\n");
-            } else {
-                result.append("❌ No event types found. Try fetching activity first.\n");
+                if (eventTypes != null && !eventTypes.isEmpty()) {
+                    eventTypes.forEach(type -> result.append("  • ").append(type).append("\n"));
+                    result.append("═".repeat(60)).append("\n");
+                    result.append("💡 Use 'filter <username> <event-type>' to filter by type\n");
+                } else {
+                    result.append("❌ No event types found. Try fetching activity first.\n");
+                }
+            } catch (Exception e) {
+                result.append("❌ Error: ").append(e.getMessage()).append("\n");
             }
-        } catch (Exception e) {
-            result.append("❌ Error: ").append(e.getMessage()).append("\n");
-        }
-        return result.toString();
+            return result.toString();
+        });
     }
 
     @ShellMethod(value = "Show activity summary for a user", key = {"summary", "s"})
-    public String showSummary(@ShellOption(help = "GitHub username") String username) {
-        StringBuilder result = new StringBuilder();
-        result.append("\n📈 Activity Summary for: ").append(username).append("\n");
-        result.append("═".repeat(60)).append("\n");
-        try {
-            List<GitHubEvent> events = activityService.getUserActivity(username, false)
-                    .collectList()
-                    .block(Duration.ofSeconds(30));
-            if (events != null && !events.isEmpty()) {
-                // Count by event type
-                events.stream()
-                        .collect(java.util.stream.Collectors.groupingBy(
-                                GitHubEvent::getType,
-                                java.util.stream.Collectors.counting()))
-                        .forEach((type, count) ->
-                                result.append(String.format("  %-20s: %d events\n", type, count)));
+    public String showSummary(
+            @ShellOption(help = "GitHub username") String username,
+            @ShellOption(help = "First day to include (yyyy-MM-dd), defaults to 30 days ago", defaultValue = ShellOption.NULL) String from,
+            @ShellOption(help = "Last day to include (yyyy-MM-dd), defaults to today", defaultValue = ShellOption.NULL) String to
+    ) {
+        return commandObserver.observe("summary", () -> {
+            StringBuilder result = new StringBuilder();
+            result.append("\n📈 Activity Summary for: ").append(username).append("\n");
+            try {
+                LocalDate end = to != null ? LocalDate.parse(to) : LocalDate.now();
+                LocalDate start = from != null ? LocalDate.parse(from) : end.minusDays(SUMMARY_DEFAULT_DAYS - 1);
+                result.append("📅 ").append(start).append(" → ").append(end).append("\n");
+                result.append("═".repeat(60)).append("\n");
+                ActivitySummary summary = activityService.getSummary(username, start, end, SUMMARY_TOP)
+                        .block(Duration.ofSeconds(10));
+                if (summary == null || summary.isEmpty()) {
+                    // Nothing ingested yet for this range; pull the feed so the counters start filling
+                    activityService.getUserActivity(username, false)
+                            .then()
+                            .block(Duration.ofSeconds(30));
+                    result.append("❌ No stored activity for user: ").append(username).append(" in this range\n");
+                    result.append("💡 Recent activity is being recorded, run summary again in a moment\n");
+                    return result.toString();
+                }
+                summary.byType().forEach(bucket ->
+                        result.append(String.format("  %-20s: %d events\n", bucket.key(), bucket.count())));
                 result.append("═".repeat(60)).append("\n");
-                result.append("📊 Total events: ").append(events.size()).append("\n");
-                // Show repositories
+                result.append("📊 Total events: ").append(summary.totalEvents()).append("\n");
                 result.append("\n🏗️ Active repositories:\n");
-                events.stream()
-                        .map(e -> e.getRepo().getName())
-                        .distinct()
-                        .limit(5)
-                        .forEach(repo -> result.append("  • ").append(repo).append("\n"));
-                if (events.stream().map(e -> e.getRepo().getName()).distinct().count() > 5) {
-                    result.append("  ... and more\n");
+                summary.topRepositories().forEach(bucket ->
+                        result.append("  • ").append(bucket.key()).append(" (").append(bucket.count()).append(")\n"));
+                if (summary.repositoryCount() > summary.topRepositories().size()) {
+                    result.append("  ... and ").append(summary.repositoryCount() - summary.topRepositories().size()).append(" more\n");
                 }
-            } else {
-                result.append("❌ No activity found for user: ").append(username).append("\n");
+                result.append("\n📆 Busiest days:\n");
+                summary.busiestDays().forEach(bucket ->
+                        result.append(String.format("  %s: %d events\n", bucket.key(), bucket.count())));
+                result.append("\n🕒 Events by hour of day (UTC):\n");
+                summary.byHourOfDay().forEach(bucket ->
+                        result.append(String.format("  %s:00 %s %d\n", bucket.key(),
+                                "▇".repeat((int) Math.max(1, bucket.count() * 30 / summary.totalEvents())), bucket.count())));
+            } catch (DateTimeParseException e) {
+                result.append("❌ Invalid date: ").append(e.getParsedString()).append(" (expected yyyy-MM-dd)\n");
+            } catch (Exception e) {
+                result.append("❌ Error: ").append(e.getMessage()).append("\n");
             }
-        } catch (Exception e) {
-            result.append("❌ Error: ").append(e.getMessage()).append("\n");
-        }
-        return result.toString();
+            return result.toString();
+        });
+    }
+
+    @ShellMethod(value = "Show the stored summary payload of an event", key = {"payload", "p"})
+    public String showPayload(@ShellOption(help = "GitHub event id") String eventId) {
+        return commandObserver.observe("payload", () -> {
+            try {
+                String payload = activityService.getEventPayload(eventId)
+                        .block(Duration.ofSeconds(10));
+                if (payload == null) {
+                    return "❌ No stored summary payload for event: " + eventId;
+                }
+                Object json = objectMapper.readValue(payload, Object.class);
+                return "\n📦 Stored summary payload for event " + eventId + "\n" +
+                        objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(json);
+            } catch (Exception e) {
+                return "❌ Error loading payload: " + e.getMessage();
+            }
+        });
     }
 
     @ShellMethod(value = "Validate GitHub username", key = {"validate", "v"})
     public String validateUser(@ShellOption(help = "GitHub username") String username) {
-        try {
-            boolean isValid = Boolean.TRUE.equals(gitHubService.validateUser(username)
-                    .block(Duration.ofSeconds(10)));
-            if (isValid) {
-                return "✅ User '" + username + "' exists on GitHub";
-            } else {
-                return "❌ User '" + username + "' not found on GitHub";
+        return commandObserver.observe("validate", () -> {
+            try {
+                boolean isValid = Boolean.TRUE.equals(gitHubService.validateUser(username)
+                        .block(Duration.ofSeconds(10)));
+                if (isValid) {
+                    return "✅ User '" + username + "' exists on GitHub";
+                } else {
+                    return "❌ User '" + username + "' not found on GitHub";
+                }
+            } catch (Exception e) {
+                return "❌ Error validating user: " + e.getMessage();
             }
-        } catch (Exception e) {
-            return "❌ Error validating user: " + e.getMessage();
-        }
+        });
     }
 
     @ShellMethod(value = "Clear cache for a user", key = {"clear-cache", "cc"})
     public String clearCache(@ShellOption(help = "GitHub username") String username) {
-        try {
-            boolean cleared = Boolean.TRUE.equals(cacheService.invalidateCache(username)
-                    .block(Duration.ofSeconds(5)));
-            if (cleared) {
-                return "✅ Cache cleared for user: " + username;
-            } else {
-                return "ℹ️ No cache found for user: " + username;
+        return commandObserver.observe("clear-cache", () -> {
+            try {
+                boolean cleared = Boolean.TRUE.equals(cacheService.invalidateCache(username)
+                        .block(Duration.ofSeconds(5)));
+                if (cleared) {
+                    return "✅ Cache cleared for user: " + username;
+                } else {
+                    return "ℹ️ No cache found for user: " + username;
+                }
+            } catch (Exception e) {
+                return "❌ Error clearing cache: " + e.getMessage();
             }
-        } catch (Exception e) {
-            return "❌ Error clearing cache: " + e.getMessage();
-        }
+        });
     }
 
     @ShellMethod(value = "Show command help", key = {"h"})
@@ -192,17 +295,45 @@ public class GitHubCommands {
             ════════════════════════════════════════════════════════════
             
             📊 Activity Commands:
-              activity <username> [--limit=10] [--refresh]
-                Fetch and display user's GitHub activity
+              activity <username> [--limit=10] [--refresh] [--history]
+                Fetch and display user's GitHub activity (--history streams all stored events)
                 
               filter <username> <event-type> [--limit=10]
                 Filter activity by event type (e.g., PushEvent)
                 
-              summary <username>
-                Show activity summary with statistics
+                Both accept --format=text|ndjson|csv, --output=<file> and --page-size=<lines>
+                
+              summary <username> [--from=yyyy-MM-dd] [--to=yyyy-MM-dd]
+                Show activity statistics for a date range (default: last 30 days)
                 
               types <username>
                 Display available event types for filtering
+                
+              history <username> [--size=20] [--before=<position>]
+                Page through stored activity history
+                
+              payload <event-id>
+                Show the stored summary payload of an event
+            
+            👥 Batch Commands (--users=a,b,c or --file=users.txt):
+              batch-activity [--limit=3] [--refresh]
+                Fetch activity for many users concurrently
+                
+              batch-summary [--days=30]
+                Summarize stored activity for many users
+                
+              batch-validate
+                Check many usernames on GitHub
+            
+            👀 Watchlist Commands:
+              watch <username>
+                Keep a user's activity fresh in the background
+                
+              unwatch <username>
+                Stop refreshing a user
+                
+              watchlist
+                Show watched users, their poll schedule and the request budget
             
             🔧 Utility Commands:
               validate <username>
@@ -211,6 +342,15 @@ public class GitHubCommands {
               clear-cache <username>
                 Clear cached data for a user
                 
+              pool-stats
+                Show HTTP connection pool statistics
+                
+              cache-stats
+                Show local and Redis cache statistics
+                
+              write-stats
+                Show write-behind persistence statistics
+                
               h
                 Show this help message
             
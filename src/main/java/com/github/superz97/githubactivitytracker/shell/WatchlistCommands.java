@@ -0,0 +1,94 @@
+package com.github.superz97.githubactivitytracker.shell;
+
+import com.github.superz97.githubactivitytracker.entity.WatchedUser;
+import com.github.superz97.githubactivitytracker.service.GitHubService;
+import com.github.superz97.githubactivitytracker.service.WatchlistService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+@ShellComponent
+@RequiredArgsConstructor
+public class WatchlistCommands {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final WatchlistService watchlistService;
+    private final GitHubService gitHubService;
+    private final CommandObserver commandObserver;
+
+    @ShellMethod(value = "Keep a user's activity fresh in the background", key = {"watch", "w"})
+    public String watch(@ShellOption(help = "GitHub username") String username) {
+        return commandObserver.observe("watch", () -> {
+            try {
+                boolean exists = Boolean.TRUE.equals(gitHubService.validateUser(username)
+                        .block(Duration.ofSeconds(10)));
+                if (!exists) {
+                    return "❌ User '" + username + "' not found on GitHub";
+                }
+                boolean added = Boolean.TRUE.equals(watchlistService.watch(username)
+                        .block(Duration.ofSeconds(5)));
+                if (added) {
+                    return "👀 Watching " + username + ", activity will be refreshed in the background";
+                } else {
+                    return "ℹ️ Already watching " + username;
+                }
+            } catch (Exception e) {
+                return "❌ Error adding user to watchlist: " + e.getMessage();
+            }
+        });
+    }
+
+    @ShellMethod(value = "Stop refreshing a user in the background", key = {"unwatch", "uw"})
+    public String unwatch(@ShellOption(help = "GitHub username") String username) {
+        return commandObserver.observe("unwatch", () -> {
+            try {
+                boolean removed = Boolean.TRUE.equals(watchlistService.unwatch(username)
+                        .block(Duration.ofSeconds(5)));
+                if (removed) {
+                    return "✅ Stopped watching " + username;
+                } else {
+                    return "ℹ️ " + username + " is not on the watchlist";
+                }
+            } catch (Exception e) {
+                return "❌ Error removing user from watchlist: " + e.getMessage();
+            }
+        });
+    }
+
+    @ShellMethod(value = "Show watched users and poller statistics", key = {"watchlist", "wl"})
+    public String showWatchlist() {
+        return commandObserver.observe("watchlist", () -> {
+            StringBuilder result = new StringBuilder();
+            result.append("\n👀 Watchlist\n");
+            result.append("═".repeat(60)).append("\n");
+            try {
+                List<WatchedUser> users = watchlistService.getWatchedUsers().block(Duration.ofSeconds(5));
+                if (users == null || users.isEmpty()) {
+                    result.append("ℹ️ No watched users, add one with 'watch <username>'\n");
+                } else {
+                    users.forEach(user -> result.append(String.format("  %-25s every %-6s next: %s%s%n",
+                            user.getUsername(),
+                            Duration.ofSeconds(user.getPollIntervalSeconds()).toString().substring(2).toLowerCase(),
+                            user.getNextPollAt().format(TIME_FORMAT),
+                            user.getQuietPolls() > 0 ? " (quiet x" + user.getQuietPolls() + ")" : "")));
+                }
+                WatchlistService.WatchlistStats stats = watchlistService.getStats();
+                result.append("═".repeat(60)).append("\n");
+                result.append(String.format("  polls: %d, failed: %d, skipped ticks: %d%n",
+                        stats.polls(), stats.failedPolls(), stats.skippedTicks()));
+                result.append(String.format("  request budget: %d/%d until %s%n",
+                        stats.requestsSpent(), stats.requestBudget(), stats.budgetResetsAt()));
+            } catch (Exception e) {
+                result.append("❌ Error: ").append(e.getMessage()).append("\n");
+            }
+            return result.toString();
+        });
+    }
+
+}
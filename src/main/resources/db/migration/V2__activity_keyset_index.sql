@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS idx_activity_username_time_id ON activity_records(username, event_time DESC, event_id DESC);
+
+DROP INDEX IF EXISTS idx_activity_username_event_time;
+
+COMMENT ON INDEX idx_activity_username_time_id IS 'Keyset pagination over a user''s history ordered by (event_time, event_id)';
@@ -0,0 +1,17 @@
+CREATE TABLE IF NOT EXISTS activity_payloads (
+    event_id VARCHAR(255) NOT NULL,
+    payload JSONB NOT NULL,
+    CONSTRAINT pk_activity_payloads PRIMARY KEY (event_id)
+);
+
+INSERT INTO activity_payloads (event_id, payload)
+SELECT event_id, raw_payload::jsonb
+FROM activity_records
+WHERE raw_payload IS NOT NULL
+ON CONFLICT (event_id) DO NOTHING;
+
+ALTER TABLE activity_records DROP COLUMN IF EXISTS raw_payload;
+
+COMMENT ON TABLE activity_payloads IS 'Raw GitHub event payloads, kept apart from the activity_records rows that list queries scan';
+COMMENT ON COLUMN activity_payloads.event_id IS 'Event identifier, matches activity_records.event_id';
+COMMENT ON COLUMN activity_payloads.payload IS 'JSON payload from GitHub API (TOAST-compressed when large)';
@@ -0,0 +1,63 @@
+ALTER TABLE activity_records RENAME TO activity_records_unpartitioned;
+ALTER TABLE activity_records_unpartitioned RENAME CONSTRAINT pk_activity_records TO pk_activity_records_unpartitioned;
+
+CREATE TABLE activity_records (
+    event_id VARCHAR(255) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    repository_name VARCHAR(500) NOT NULL,
+    description TEXT,
+    event_time TIMESTAMP NOT NULL,
+    fetched_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_activity_records PRIMARY KEY (event_id, event_time)
+) PARTITION BY RANGE (event_time);
+
+CREATE TABLE activity_records_default PARTITION OF activity_records DEFAULT;
+
+DO $$
+DECLARE
+    month_start DATE;
+    last_month DATE;
+BEGIN
+    SELECT date_trunc('month', LEAST(COALESCE(MIN(event_time), now()), now()))::date
+    INTO month_start
+    FROM activity_records_unpartitioned;
+    last_month := (date_trunc('month', now()) + INTERVAL '3 months')::date;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF activity_records FOR VALUES FROM (%L) TO (%L)',
+            'activity_records_' || to_char(month_start, 'YYYY_MM'),
+            month_start,
+            (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO activity_records (event_id, username, event_type, repository_name, description, event_time, fetched_at)
+SELECT event_id, username, event_type, repository_name, description, event_time, fetched_at
+FROM activity_records_unpartitioned;
+
+DROP TABLE activity_records_unpartitioned;
+
+CREATE INDEX idx_activity_username_time_id ON activity_records(username, event_time DESC, event_id DESC);
+CREATE INDEX idx_activity_username_event_type ON activity_records(username, event_type);
+
+CREATE TABLE IF NOT EXISTS activity_daily_rollups (
+    day DATE NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    event_count INTEGER NOT NULL,
+    CONSTRAINT pk_activity_daily_rollups PRIMARY KEY (username, day, event_type)
+);
+
+COMMENT ON TABLE activity_records IS 'Stores GitHub activity events fetched from the API, range partitioned by month on event_time';
+COMMENT ON COLUMN activity_records.event_id IS 'Unique identifier from GitHub API';
+COMMENT ON COLUMN activity_records.username IS 'GitHub username';
+COMMENT ON COLUMN activity_records.event_type IS 'Type of GitHub event (PushEvent, CreateEvent, etc.)';
+COMMENT ON COLUMN activity_records.repository_name IS 'Full repository name (owner/repo)';
+COMMENT ON COLUMN activity_records.description IS 'Human-readable description of the activity';
+COMMENT ON COLUMN activity_records.event_time IS 'When the event occurred on GitHub, also the partition key';
+COMMENT ON COLUMN activity_records.fetched_at IS 'When we fetched this data from GitHub API';
+COMMENT ON TABLE activity_records_default IS 'Catches events outside the pre-created monthly partitions until maintenance moves them';
+COMMENT ON TABLE activity_daily_rollups IS 'Per-day event counts kept after expired activity partitions are dropped';
@@ -0,0 +1,17 @@
+CREATE TABLE IF NOT EXISTS activity_hourly_stats (
+    username VARCHAR(255) NOT NULL,
+    hour TIMESTAMP NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    repository_name VARCHAR(500) NOT NULL,
+    event_count INTEGER NOT NULL,
+    CONSTRAINT pk_activity_hourly_stats PRIMARY KEY (username, hour, event_type, repository_name)
+);
+
+INSERT INTO activity_hourly_stats (username, hour, event_type, repository_name, event_count)
+SELECT username, date_trunc('hour', event_time), event_type, repository_name, count(*)
+FROM activity_records
+GROUP BY username, date_trunc('hour', event_time), event_type, repository_name;
+
+COMMENT ON TABLE activity_hourly_stats IS 'Per-user event counters bucketed by hour, type and repository, maintained at ingest time';
+COMMENT ON COLUMN activity_hourly_stats.hour IS 'Start of the hour the events occurred in';
+COMMENT ON COLUMN activity_hourly_stats.event_count IS 'Number of distinct events stored for the bucket';
@@ -0,0 +1,15 @@
+CREATE TABLE IF NOT EXISTS activity_event_types (
+    username VARCHAR(255) NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    first_seen_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_activity_event_types PRIMARY KEY (username, event_type)
+);
+
+INSERT INTO activity_event_types (username, event_type, first_seen_at)
+SELECT username, event_type, min(event_time)
+FROM activity_records
+GROUP BY username, event_type
+ON CONFLICT (username, event_type) DO NOTHING;
+
+COMMENT ON TABLE activity_event_types IS 'Distinct event types seen per user, maintained at ingest time';
+COMMENT ON COLUMN activity_event_types.first_seen_at IS 'Time of the earliest stored event of this type';
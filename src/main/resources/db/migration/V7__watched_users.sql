@@ -0,0 +1,18 @@
+CREATE TABLE IF NOT EXISTS watched_users (
+    username VARCHAR(255) NOT NULL,
+    added_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    next_poll_at TIMESTAMP NOT NULL,
+    poll_interval_seconds BIGINT NOT NULL,
+    quiet_polls INTEGER NOT NULL DEFAULT 0,
+    last_polled_at TIMESTAMP,
+    last_activity_at TIMESTAMP,
+    CONSTRAINT pk_watched_users PRIMARY KEY (username)
+);
+
+CREATE INDEX idx_watched_users_next_poll ON watched_users(next_poll_at);
+
+COMMENT ON TABLE watched_users IS 'Users kept warm by the background poller';
+COMMENT ON COLUMN watched_users.next_poll_at IS 'When the poller should refresh this user next';
+COMMENT ON COLUMN watched_users.poll_interval_seconds IS 'Current adaptive polling interval';
+COMMENT ON COLUMN watched_users.quiet_polls IS 'Consecutive polls that found no new events';
+COMMENT ON COLUMN watched_users.last_activity_at IS 'Last poll that found new events';
@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS activity_ingest_marks (
+    username VARCHAR(255) NOT NULL,
+    event_id VARCHAR(255) NOT NULL,
+    event_time TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_activity_ingest_marks PRIMARY KEY (username)
+);
+
+COMMENT ON TABLE activity_ingest_marks IS 'Newest event of the last feed ingest that ran to completion, per user';
+COMMENT ON COLUMN activity_ingest_marks.event_id IS 'Incremental fetches stop at this event; activity_records alone cannot tell a complete ingest from a partial one';
+COMMENT ON COLUMN activity_ingest_marks.completed_at IS 'When the ingest that recorded this mark finished queueing its events';
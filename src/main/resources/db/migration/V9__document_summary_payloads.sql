@@ -0,0 +1,2 @@
+COMMENT ON TABLE activity_payloads IS 'Stored summary payloads: the typed subset of each GitHub event payload the tracker reads, kept apart from the activity_records rows that list queries scan';
+COMMENT ON COLUMN activity_payloads.payload IS 'Stored summary payload as JSON; fields the tracker does not read are dropped while parsing and array fields such as commits are stored as counts (TOAST-compressed when large)';
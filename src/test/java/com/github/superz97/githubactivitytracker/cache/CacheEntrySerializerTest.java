@@ -0,0 +1,114 @@
+package com.github.superz97.githubactivitytracker.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.superz97.githubactivitytracker.model.Actor;
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import com.github.superz97.githubactivitytracker.model.Repo;
+import com.github.superz97.githubactivitytracker.model.payload.RefPayload;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheEntrySerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final JacksonCacheCodec json = new JacksonCacheCodec(JacksonCacheCodec.JSON_ID, "json", objectMapper);
+    private final JacksonCacheCodec smile = new JacksonCacheCodec(JacksonCacheCodec.SMILE_ID, "smile",
+            objectMapper.copyWith(new SmileFactory()));
+
+    @Test
+    void compressedSmileEntryRoundTripsAndIsSmallerThanJson() throws Exception {
+        CachedActivity entry = new CachedActivity(events(50), Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        CacheEntrySerializer smileSerializer = new CacheEntrySerializer(smile, List.of(json, smile), 1024, objectMapper);
+        CacheEntrySerializer jsonSerializer = new CacheEntrySerializer(json, List.of(json, smile), 0, objectMapper);
+
+        byte[] encoded = smileSerializer.serialize(entry);
+
+        assertThat(smileSerializer.deserialize(encoded)).isEqualTo(entry);
+        assertThat(encoded.length).isLessThan(jsonSerializer.serialize(entry).length);
+    }
+
+    @Test
+    void entriesWrittenByAnotherCodecRemainReadable() throws Exception {
+        CachedActivity entry = new CachedActivity(events(3), Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        byte[] writtenAsJson = new CacheEntrySerializer(json, List.of(json, smile), 0, objectMapper).serialize(entry);
+
+        CacheEntrySerializer smileSerializer = new CacheEntrySerializer(smile, List.of(json, smile), 0, objectMapper);
+
+        assertThat(smileSerializer.deserialize(writtenAsJson)).isEqualTo(entry);
+    }
+
+    @Test
+    void legacyPlainJsonListIsReadAsStaleEntry() throws Exception {
+        List<GitHubEvent> events = events(2);
+        byte[] legacy = objectMapper.writeValueAsString(events).getBytes(StandardCharsets.UTF_8);
+
+        CachedActivity entry = new CacheEntrySerializer(smile, List.of(json, smile), 0, objectMapper).deserialize(legacy);
+
+        assertThat(entry.events()).isEqualTo(events);
+        assertThat(entry.cachedAt()).isEqualTo(Instant.EPOCH);
+    }
+
+    // Payloads parsed from GitHub-shaped JSON must read back equal from both codecs, counted arrays included
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', textBlock = """
+            PushEvent                     | {"ref": "refs/heads/main", "size": 2, "commits": [{"sha": "a"}, {"sha": "b"}]}
+            CreateEvent                   | {"ref": "main", "ref_type": "branch"}
+            IssuesEvent                   | {"action": "opened", "issue": {"number": 7, "title": "Bug"}}
+            PullRequestEvent              | {"action": "closed", "pull_request": {"number": 8, "title": "Fix"}}
+            PullRequestReviewEvent        | {"action": "created"}
+            ForkEvent                     | {"forkee": {"full_name": "someone/Hello-World"}}
+            ReleaseEvent                  | {"action": "published", "release": {"tag_name": "v1.0"}}
+            MemberEvent                   | {"action": "added", "member": {"login": "hubot"}}
+            GollumEvent                   | {"pages": [{"page_name": "Home"}, {"page_name": "FAQ"}]}
+            """)
+    void typedPayloadsRoundTripThroughEachCodec(String type, String payload) throws Exception {
+        GitHubEvent event = objectMapper.readValue("""
+                {"id": "1", "type": "%s", "created_at": "2025-10-01T12:00:00", "payload": %s}"""
+                .formatted(type, payload), GitHubEvent.class);
+        CachedActivity entry = new CachedActivity(List.of(event), Instant.now().truncatedTo(ChronoUnit.MILLIS));
+
+        for (JacksonCacheCodec codec : List.of(json, smile)) {
+            CacheEntrySerializer serializer = new CacheEntrySerializer(codec, List.of(json, smile), 0, objectMapper);
+            assertThat(serializer.deserialize(serializer.serialize(entry))).isEqualTo(entry);
+        }
+    }
+
+    private static List<GitHubEvent> events(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    Actor actor = new Actor();
+                    actor.setLogin("octocat");
+                    Repo repo = new Repo();
+                    repo.setName("octocat/Hello-World");
+                    GitHubEvent event = new GitHubEvent();
+                    event.setId(String.valueOf(1000 + i));
+                    event.setType("CreateEvent");
+                    event.setCreatedAt(LocalDateTime.of(2025, 10, 1, 12, 0).plusMinutes(i));
+                    event.setActor(actor);
+                    event.setRepo(repo);
+                    RefPayload payload = new RefPayload();
+                    payload.setRef("feature-" + i);
+                    payload.setRefType("branch");
+                    event.setPayload(payload);
+                    return event;
+                })
+                .toList();
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.github.superz97.githubactivitytracker.format;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventFormatterRegistryTest {
+
+    // Shared with the JMH suite, see Fixtures.EVENTS_PAGE
+    private static final String EVENTS_PAGE = "fixtures/events-page.json";
+
+    private static List<GitHubEvent> events;
+
+    @BeforeAll
+    static void loadEvents() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        try (InputStream in = EventFormatterRegistryTest.class.getClassLoader().getResourceAsStream(EVENTS_PAGE)) {
+            assertThat(in).as("fixture %s", EVENTS_PAGE).isNotNull();
+            events = mapper.readValue(in, mapper.getTypeFactory().constructCollectionType(List.class, GitHubEvent.class));
+        }
+    }
+
+    // Expected text is what GitHubEvent.getFormattedActivity() produced for the first event of each type
+    // before the formatters replaced its switch
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', quoteCharacter = '"', textBlock = """
+            PushEvent                     | pushed 1 commit(s) to octocat/git-consortium
+            CreateEvent                   | created branch 'v1.2.0' in octocat/Spoon-Knife
+            DeleteEvent                   | deleted branch 'fix/rate-limit' in octocat/linguist
+            IssuesEvent                   | reopened an issue 'Remove deprecated API usage' in reactor/reactor-core
+            IssueCommentEvent             | commented on an issue 'Add integration tests for the events endpoint' in octocat/Hello-World
+            PullRequestEvent              | opened a pull request 'Refactor cache layer for clarity' in octocat/Hello-World
+            PullRequestReviewEvent        | created a pull request in octocat/Spoon-Knife
+            PullRequestReviewCommentEvent | commented on a pull request review in octocat/linguist
+            CommitCommentEvent            | commented on a commit in reactor/reactor-core
+            ForkEvent                     | forked octocat/git-consortium to octocat/git-consortium-fork
+            ReleaseEvent                  | published a release 'v2.7.0' in octocat/linguist
+            MemberEvent                   | added hubot as a member to FasterXML/jackson-databind
+            GollumEvent                   | updated 2 wiki page(s) in FasterXML/jackson-databind
+            WatchEvent                    | starred octocat/Spoon-Knife
+            PublicEvent                   | made spring-projects/spring-boot public
+            """)
+    void builtInFormattersMatchTheFormerSwitch(String type, String expected) throws IOException {
+        GitHubEvent event = firstOfType(type);
+        StringBuilder out = new StringBuilder();
+
+        EventFormatterRegistry.unmemoized().describe(event, out);
+
+        assertThat(out).hasToString(expected);
+        assertThat(EventFormatterRegistry.withDefaults().format(event))
+                .isEqualTo("[" + event.getCreatedAt() + "] " + event.getActor().getLogin() + " " + expected);
+    }
+
+    @Test
+    void customFormatterBeanReplacesTheBuiltIn() throws IOException {
+        EventFormatter custom = new EventFormatter() {
+            @Override
+            public Set<String> eventTypes() {
+                return Set.of("PushEvent");
+            }
+
+            @Override
+            public void describe(GitHubEvent event, Appendable out) throws IOException {
+                out.append("shipped code to ").append(Formatting.repoName(event));
+            }
+        };
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("customPushFormatter", custom));
+        EventFormatterRegistry registry = new EventFormatterRegistry(beans.getBeanProvider(EventFormatter.class), 0);
+
+        StringBuilder push = new StringBuilder();
+        registry.describe(firstOfType("PushEvent"), push);
+        StringBuilder create = new StringBuilder();
+        registry.describe(firstOfType("CreateEvent"), create);
+
+        assertThat(push).hasToString("shipped code to octocat/git-consortium");
+        assertThat(create).hasToString("created branch 'v1.2.0' in octocat/Spoon-Knife");
+    }
+
+    @Test
+    void memoizedFormatToRendersInPlaceOnceForAnySink() throws IOException {
+        AtomicInteger renders = new AtomicInteger();
+        EventFormatter counting = new EventFormatter() {
+            @Override
+            public Set<String> eventTypes() {
+                return Set.of("PushEvent");
+            }
+
+            @Override
+            public void describe(GitHubEvent event, Appendable out) throws IOException {
+                renders.incrementAndGet();
+                out.append("pushed to ").append(Formatting.repoName(event));
+            }
+        };
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("countingPushFormatter", counting));
+        EventFormatterRegistry registry = new EventFormatterRegistry(beans.getBeanProvider(EventFormatter.class), 100);
+        GitHubEvent push = firstOfType("PushEvent");
+        GitHubEvent create = firstOfType("CreateEvent");
+        String expected = "[" + push.getCreatedAt() + "] " + push.getActor().getLogin() + " pushed to octocat/git-consortium";
+
+        StringBuilder buffer = new StringBuilder(" 1. ");
+        registry.formatTo(push, buffer);
+        StringWriter writer = new StringWriter();
+        registry.formatTo(push, writer);
+        StringWriter uncached = new StringWriter();
+        registry.formatTo(create, uncached);
+
+        assertThat(buffer).hasToString(" 1. " + expected);
+        assertThat(writer).hasToString(expected);
+        assertThat(registry.format(push)).isEqualTo(expected);
+        assertThat(renders).hasValue(1);
+        assertThat(registry.format(create)).isEqualTo(uncached.toString());
+    }
+
+    private static GitHubEvent firstOfType(String type) {
+        return events.stream()
+                .filter(event -> type.equals(event.getType()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No " + type + " in " + EVENTS_PAGE));
+    }
+
+}
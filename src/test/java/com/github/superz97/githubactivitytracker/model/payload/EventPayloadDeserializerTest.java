@@ -0,0 +1,60 @@
+package com.github.superz97.githubactivitytracker.model.payload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventPayloadDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void payloadIsBoundByTheTypeThatPrecedesIt() throws Exception {
+        GitHubEvent event = objectMapper.readValue("""
+                {"id": "1", "type": "CreateEvent", "payload": {"ref": "main", "ref_type": "branch", "master_branch": "main"}}""",
+                GitHubEvent.class);
+
+        assertThat(event.getPayload()).isInstanceOfSatisfying(RefPayload.class, payload -> {
+            assertThat(payload.getRef()).isEqualTo("main");
+            assertThat(payload.getRefType()).isEqualTo("branch");
+        });
+    }
+
+    @Test
+    void payloadAheadOfTheTypeIsBufferedUntilTheTypeArrives() throws Exception {
+        GitHubEvent event = objectMapper.readValue("""
+                {"id": "1", "payload": {"ref": "refs/heads/main", "commits": [{"sha": "a"}, {"sha": "b"}]}, "type": "PushEvent"}""",
+                GitHubEvent.class);
+
+        assertThat(event.getPayload()).isInstanceOfSatisfying(PushPayload.class, payload -> {
+            assertThat(payload.getRef()).isEqualTo("refs/heads/main");
+            assertThat(payload.getCommitCount()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void payloadWithoutAnyTypeFallsBackToGeneric() throws Exception {
+        GitHubEvent event = objectMapper.readValue("""
+                {"id": "1", "payload": {"action": "started"}}""", GitHubEvent.class);
+
+        assertThat(event.getPayload()).isInstanceOf(GenericPayload.class);
+    }
+
+    @Test
+    void elementCountReadsArraysAndPlainNumbers() throws Exception {
+        PushPayload fromFeed = objectMapper.readValue("""
+                {"commits": [{"sha": "a", "author": {"name": "x"}}, {"sha": "b"}, {"sha": "c"}]}""", PushPayload.class);
+        PushPayload fromCache = objectMapper.readValue("""
+                {"commits": 3}""", PushPayload.class);
+        GollumPayload unexpected = objectMapper.readValue("""
+                {"pages": {"title": "Home"}}""", GollumPayload.class);
+
+        assertThat(fromFeed.getCommits()).isEqualTo(3);
+        assertThat(fromCache.getCommits()).isEqualTo(3);
+        assertThat(unexpected.getPages()).isNull();
+    }
+
+}
@@ -0,0 +1,371 @@
+package com.github.superz97.githubactivitytracker.service;
+
+import com.github.superz97.githubactivitytracker.cache.CachedActivity;
+import com.github.superz97.githubactivitytracker.entity.IngestMark;
+import com.github.superz97.githubactivitytracker.model.Actor;
+import com.github.superz97.githubactivitytracker.model.GitHubEvent;
+import com.github.superz97.githubactivitytracker.model.Repo;
+import com.github.superz97.githubactivitytracker.repository.ActivityPayloadRepository;
+import com.github.superz97.githubactivitytracker.repository.ActivityRecordRepository;
+import com.github.superz97.githubactivitytracker.repository.ActivityRecordView;
+import com.github.superz97.githubactivitytracker.repository.ActivityStatsRepository;
+import com.github.superz97.githubactivitytracker.repository.IngestMarkRepository;
+import com.github.superz97.githubactivitytracker.service.ActivityWriteBehindQueue.EnqueueResult;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityServiceTest {
+
+    private static final String USERNAME = "octocat";
+
+    @Mock
+    private GitHubService gitHubService;
+
+    @Mock
+    private CacheService cacheService;
+
+    @Mock
+    private ActivityRecordRepository activityRepository;
+
+    @Mock
+    private ActivityPayloadRepository payloadRepository;
+
+    @Mock
+    private ActivityStatsRepository statsRepository;
+
+    @Mock
+    private IngestMarkRepository ingestMarkRepository;
+
+    @Mock
+    private ActivityWriteBehindQueue writeBehindQueue;
+
+    @Mock
+    private ActivityRecordMapper activityRecordMapper;
+
+    private ActivityService activityService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lenient().when(writeBehindQueue.enqueue(any()))
+                .thenAnswer(invocation -> written(invocation.<Collection<?>>getArgument(0).size()));
+        activityService = new ActivityService(gitHubService, cacheService, activityRepository, payloadRepository,
+                statsRepository, ingestMarkRepository, writeBehindQueue, activityRecordMapper,
+                Schedulers.boundedElastic(), ObservationRegistry.NOOP);
+    }
+
+    @Test
+    void concurrentCacheMissesShareOneUpstreamFetch() throws Exception {
+        List<GitHubEvent> events = List.of(event("1"), event("2"), event("3"));
+        Sinks.Empty<Void> upstreamGate = Sinks.empty();
+        when(cacheService.getCachedEntry(USERNAME)).thenReturn(Mono.empty());
+        lenient().when(cacheService.cacheActivity(eq(USERNAME), anyList())).thenReturn(Mono.just(true));
+        when(gitHubService.getUserActivity(USERNAME))
+                .thenReturn(upstreamGate.asMono().thenMany(Flux.fromIterable(events)));
+
+        int callers = 50;
+        CompletableFuture<List<List<GitHubEvent>>> results = Flux.range(0, callers)
+                .flatMap(i -> activityService.getUserActivity(USERNAME, false).collectList(), callers)
+                .collectList()
+                .toFuture();
+
+        verify(gitHubService, times(1)).getUserActivity(USERNAME);
+        upstreamGate.tryEmitEmpty();
+
+        List<List<GitHubEvent>> received = results.get(5, TimeUnit.SECONDS);
+        assertThat(received).hasSize(callers).allSatisfy(list -> assertThat(list).hasSize(events.size()));
+        verify(gitHubService, times(1)).getUserActivity(USERNAME);
+        verify(cacheService, times(1)).cacheActivity(eq(USERNAME), anyList());
+    }
+
+    @Test
+    void failedFetchIsNotSharedWithLaterCallers() {
+        List<GitHubEvent> events = List.of(event("1"));
+        when(cacheService.getCachedEntry(USERNAME)).thenReturn(Mono.empty());
+        lenient().when(cacheService.cacheActivity(eq(USERNAME), anyList())).thenReturn(Mono.just(true));
+        when(gitHubService.getUserActivity(USERNAME))
+                .thenReturn(Flux.error(new RuntimeException("GitHub API error")), Flux.fromIterable(events));
+
+        Mono<List<GitHubEvent>> first = activityService.getUserActivity(USERNAME, false).collectList();
+        assertThat(first.onErrorReturn(List.of()).block(Duration.ofSeconds(5))).isEmpty();
+
+        List<GitHubEvent> second = activityService.getUserActivity(USERNAME, false).collectList()
+                .block(Duration.ofSeconds(5));
+        assertThat(second).hasSize(1);
+        verify(gitHubService, times(2)).getUserActivity(USERNAME);
+    }
+
+    @Test
+    void staleEntryIsServedWhileRefreshing() throws Exception {
+        List<GitHubEvent> cached = List.of(event("1"));
+        List<GitHubEvent> fresh = List.of(event("2"), event("1"));
+        CachedActivity staleEntry = new CachedActivity(cached, Instant.now().minus(Duration.ofHours(1)));
+        when(cacheService.getCachedEntry(USERNAME)).thenReturn(Mono.just(staleEntry));
+        when(cacheService.isFresh(staleEntry)).thenReturn(false);
+        when(cacheService.cacheActivity(eq(USERNAME), anyList())).thenReturn(Mono.just(true));
+        when(gitHubService.getUserActivity(USERNAME)).thenReturn(Flux.fromIterable(fresh));
+
+        List<GitHubEvent> served = activityService.getUserActivity(USERNAME, false).collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(served).isEqualTo(cached);
+        verify(cacheService, timeout(1000)).cacheActivity(USERNAME, fresh);
+        verify(writeBehindQueue, timeout(1000)).enqueue(any());
+    }
+
+    @Test
+    void smallLimitOnlyFetchesTheFirstPage() throws Exception {
+        AtomicInteger pagesFetched = new AtomicInteger();
+        Flux<GitHubEvent> feed = Flux.defer(() -> {
+                    pagesFetched.incrementAndGet();
+                    return Flux.just(event("6"), event("5"), event("4"));
+                })
+                .concatWith(Flux.defer(() -> {
+                    pagesFetched.incrementAndGet();
+                    return Flux.just(event("3"), event("2"), event("1"));
+                }));
+        when(cacheService.getCachedEntry(USERNAME)).thenReturn(Mono.empty());
+        when(gitHubService.getUserActivity(USERNAME)).thenReturn(feed);
+
+        List<GitHubEvent> shown = activityService.getUserActivity(USERNAME, false).take(2).collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(shown).extracting(GitHubEvent::getId).containsExactly("6", "5");
+        assertThat(pagesFetched).hasValue(1);
+        verify(cacheService, after(300).never()).cacheActivity(eq(USERNAME), anyList());
+        verify(writeBehindQueue, never()).enqueue(any());
+        verify(ingestMarkRepository, never()).save(any());
+    }
+
+    @Test
+    void stalledFeedFailsOnceTheGapBetweenEventsRunsOut() {
+        ReflectionTestUtils.setField(activityService, "stallTimeout", Duration.ofMillis(200));
+        when(cacheService.getCachedEntry(USERNAME)).thenReturn(Mono.empty());
+        when(gitHubService.getUserActivity(USERNAME)).thenReturn(Flux.just(event("2")).concatWith(Flux.never()));
+
+        List<GitHubEvent> shown = new CopyOnWriteArrayList<>();
+        assertThatThrownBy(() -> activityService.getUserActivity(USERNAME, false)
+                .doOnNext(shown::add)
+                .blockLast(Duration.ofSeconds(5)))
+                .isInstanceOf(FetchTimeoutException.class);
+        assertThat(shown).extracting(GitHubEvent::getId).containsExactly("2");
+    }
+
+    @Test
+    void ingestMarkIsRecordedOnlyAfterTheRecordsAreWritten() throws Exception {
+        ReflectionTestUtils.setField(activityService, "incrementalIngest", true);
+        List<GitHubEvent> events = List.of(event("5"), event("4"), event("3"));
+        CompletableFuture<Void> flushed = new CompletableFuture<>();
+        when(cacheService.getCachedEntry(USERNAME)).thenReturn(Mono.empty());
+        when(cacheService.cacheActivity(eq(USERNAME), anyList())).thenReturn(Mono.just(true));
+        when(ingestMarkRepository.findById(USERNAME)).thenReturn(Optional.empty());
+        when(gitHubService.getUserActivity(USERNAME)).thenReturn(Flux.fromIterable(events));
+        doReturn(new EnqueueResult(events.size(), 0, 0, flushed)).when(writeBehindQueue).enqueue(anyCollection());
+
+        activityService.getUserActivity(USERNAME, false).collectList().block(Duration.ofSeconds(5));
+
+        verify(writeBehindQueue, timeout(1000)).enqueue(argThat(records -> records.size() == events.size()));
+        verify(ingestMarkRepository, after(300).never()).save(any());
+
+        flushed.complete(null);
+
+        verify(ingestMarkRepository, timeout(1000)).save(argThat(mark -> "5".equals(mark.getEventId())));
+    }
+
+    @Test
+    void ingestMarkIsNotRecordedWhenTheRecordsAreNotWritten() throws Exception {
+        ReflectionTestUtils.setField(activityService, "incrementalIngest", true);
+        List<GitHubEvent> events = List.of(event("5"), event("4"), event("3"));
+        when(cacheService.getCachedEntry(USERNAME)).thenReturn(Mono.empty());
+        when(cacheService.cacheActivity(eq(USERNAME), anyList())).thenReturn(Mono.just(true));
+        when(ingestMarkRepository.findById(USERNAME)).thenReturn(Optional.empty());
+        when(gitHubService.getUserActivity(USERNAME)).thenReturn(Flux.fromIterable(events));
+        doReturn(new EnqueueResult(1, 0, 2,
+                CompletableFuture.failedFuture(new ActivityWriteBehindQueue.WriteBehindOverflowException(2, "drop"))))
+                .when(writeBehindQueue).enqueue(anyCollection());
+
+        activityService.getUserActivity(USERNAME, false).collectList().block(Duration.ofSeconds(5));
+
+        verify(writeBehindQueue, timeout(1000)).enqueue(anyCollection());
+        verify(ingestMarkRepository, after(300).never()).save(any());
+        // The rolled back mark sends the next ingest back to the stored one, here a full fetch
+        activityService.refreshActivity(USERNAME).block(Duration.ofSeconds(5));
+        verify(gitHubService, times(2)).getUserActivity(USERNAME);
+    }
+
+    @Test
+    void concurrentIncrementalFetchesShareOneDeltaRequest() throws Exception {
+        ReflectionTestUtils.setField(activityService, "incrementalIngest", true);
+        Sinks.Empty<Void> upstreamGate = Sinks.empty();
+        when(cacheService.getCachedEntry(USERNAME)).thenReturn(Mono.empty());
+        when(cacheService.getCachedActivity(USERNAME)).thenReturn(Mono.just(List.of(event("5"))));
+        when(cacheService.cacheActivity(eq(USERNAME), anyList())).thenReturn(Mono.just(true));
+        when(ingestMarkRepository.findById(USERNAME)).thenReturn(Optional.of(storedMark("5")));
+        when(gitHubService.getUserActivity(eq(USERNAME), any()))
+                .thenReturn(upstreamGate.asMono().thenMany(Flux.just(event("6"))));
+
+        int callers = 20;
+        CompletableFuture<List<List<GitHubEvent>>> results = Flux.range(0, callers)
+                .flatMap(i -> activityService.getUserActivity(USERNAME, false).collectList(), callers)
+                .collectList()
+                .toFuture();
+
+        verify(gitHubService, timeout(1000)).getUserActivity(eq(USERNAME), any());
+        upstreamGate.tryEmitEmpty();
+
+        List<List<GitHubEvent>> received = results.get(5, TimeUnit.SECONDS);
+        assertThat(received).hasSize(callers).allSatisfy(list -> assertThat(list).extracting(GitHubEvent::getId)
+                .containsExactly("6", "5"));
+        verify(gitHubService, times(1)).getUserActivity(eq(USERNAME), any());
+        verify(ingestMarkRepository, times(1)).findById(USERNAME);
+        verify(gitHubService, never()).getUserActivity(USERNAME);
+    }
+
+    @Test
+    void storedMarkLimitsTheFetchToNewerEvents() throws Exception {
+        ReflectionTestUtils.setField(activityService, "incrementalIngest", true);
+        List<GitHubEvent> delta = List.of(event("7"), event("6"));
+        when(cacheService.getCachedEntry(USERNAME)).thenReturn(Mono.empty());
+        when(cacheService.getCachedActivity(USERNAME)).thenReturn(Mono.just(List.of(event("5"), event("4"))));
+        when(cacheService.cacheActivity(eq(USERNAME), anyList())).thenReturn(Mono.just(true));
+        when(ingestMarkRepository.findById(USERNAME)).thenReturn(Optional.of(storedMark("5")));
+        when(gitHubService.getUserActivity(eq(USERNAME), argThat(isNew -> isNew.test(event("6")) && !isNew.test(event("5")))))
+                .thenReturn(Flux.fromIterable(delta));
+
+        List<GitHubEvent> served = activityService.getUserActivity(USERNAME, false).collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(served).extracting(GitHubEvent::getId).containsExactly("7", "6", "5", "4");
+        verify(cacheService, timeout(1000)).cacheActivity(eq(USERNAME), argThat(events -> events.size() == 4));
+        verify(writeBehindQueue, timeout(1000)).enqueue(argThat(records -> records.size() == delta.size()));
+        verify(ingestMarkRepository, timeout(1000)).save(argThat(mark -> "7".equals(mark.getEventId())));
+        verify(gitHubService, never()).getUserActivity(USERNAME);
+    }
+
+    @Test
+    void notModifiedServesKnownActivityWithoutWriting() throws Exception {
+        ReflectionTestUtils.setField(activityService, "incrementalIngest", true);
+        List<GitHubEvent> known = List.of(event("5"), event("4"));
+        when(cacheService.getCachedEntry(USERNAME)).thenReturn(Mono.empty());
+        when(cacheService.getCachedActivity(USERNAME)).thenReturn(Mono.just(known));
+        when(cacheService.cacheActivity(USERNAME, known)).thenReturn(Mono.just(true));
+        when(ingestMarkRepository.findById(USERNAME)).thenReturn(Optional.of(storedMark("5")));
+        when(gitHubService.getUserActivity(eq(USERNAME), any()))
+                .thenReturn(Flux.error(new NotModifiedException(USERNAME)));
+
+        List<GitHubEvent> served = activityService.getUserActivity(USERNAME, false).collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(served).isEqualTo(known);
+        verify(cacheService).cacheActivity(USERNAME, known);
+        verify(gitHubService, never()).forgetValidators(USERNAME);
+        verify(writeBehindQueue, never()).enqueue(any());
+    }
+
+    @Test
+    void notModifiedWithNothingKnownFallsBackToAFullFetch() throws Exception {
+        ReflectionTestUtils.setField(activityService, "incrementalIngest", true);
+        List<GitHubEvent> events = List.of(event("5"), event("4"));
+        when(cacheService.getCachedEntry(USERNAME)).thenReturn(Mono.empty());
+        when(cacheService.getCachedActivity(USERNAME)).thenReturn(Mono.empty());
+        when(cacheService.cacheActivity(eq(USERNAME), anyList())).thenReturn(Mono.just(true));
+        when(activityRepository.findByUsernameOrderByEventTimeDescEventIdDesc(eq(USERNAME), any())).thenReturn(List.of());
+        when(ingestMarkRepository.findById(USERNAME)).thenReturn(Optional.of(storedMark("5")));
+        when(gitHubService.getUserActivity(eq(USERNAME), any()))
+                .thenReturn(Flux.error(new NotModifiedException(USERNAME)));
+        when(gitHubService.getUserActivity(USERNAME)).thenReturn(Flux.fromIterable(events));
+
+        List<GitHubEvent> served = activityService.getUserActivity(USERNAME, false).collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(served).isEqualTo(events);
+        verify(gitHubService).forgetValidators(USERNAME);
+        verify(cacheService, timeout(1000)).cacheActivity(USERNAME, events);
+    }
+
+    @Test
+    void storedHistoryIsReadInKeysetPages() {
+        ReflectionTestUtils.setField(activityService, "historyPageSize", 2);
+        LocalDateTime now = LocalDateTime.now();
+        ActivityRecordView newest = stored("3", now);
+        ActivityRecordView middle = stored("2", now.minusMinutes(1));
+        ActivityRecordView oldest = stored("1", now.minusMinutes(2));
+        when(activityRepository.findByUsernameOrderByEventTimeDescEventIdDesc(eq(USERNAME), any()))
+                .thenReturn(List.of(newest, middle));
+        when(activityRepository.findPageBefore(eq(USERNAME), eq(middle.eventTime()), eq("2"), any()))
+                .thenReturn(List.of(oldest));
+
+        List<String> all = activityService.getHistoricalActivity(USERNAME)
+                .map(ActivityRecordView::eventId).collectList().block(Duration.ofSeconds(5));
+        assertThat(all).containsExactly("3", "2", "1");
+        verify(activityRepository).findPageBefore(eq(USERNAME), any(), any(), any());
+    }
+
+    private static ActivityRecordView stored(String eventId, LocalDateTime eventTime) {
+        return new ActivityRecordView(eventId, USERNAME, "PushEvent", "octocat/hello", "Pushed", eventTime);
+    }
+
+    private static EnqueueResult written(int records) {
+        return new EnqueueResult(records, 0, 0, CompletableFuture.completedFuture(null));
+    }
+
+    private static IngestMark storedMark(String eventId) {
+        IngestMark mark = new IngestMark();
+        mark.setUsername(USERNAME);
+        mark.setEventId(eventId);
+        mark.setEventTime(LocalDateTime.now().minusHours(1));
+        mark.setCompletedAt(LocalDateTime.now().minusHours(1));
+        return mark;
+    }
+
+    private static GitHubEvent event(String id) {
+        Actor actor = new Actor();
+        actor.setLogin(USERNAME);
+        Repo repo = new Repo();
+        repo.setName(USERNAME + "/hello-world");
+        GitHubEvent event = new GitHubEvent();
+        event.setId(id);
+        event.setType("WatchEvent");
+        event.setCreatedAt(LocalDateTime.now());
+        event.setActor(actor);
+        event.setRepo(repo);
+        return event;
+    }
+
+}
@@ -0,0 +1,196 @@
+package com.github.superz97.githubactivitytracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.superz97.githubactivitytracker.entity.ActivityRecord;
+import com.github.superz97.githubactivitytracker.repository.ActivityRecordBulkWriter;
+import com.github.superz97.githubactivitytracker.repository.BulkWriteResult;
+import com.github.superz97.githubactivitytracker.service.ActivityWriteBehindQueue.EnqueueResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityWriteBehindQueueTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Mock
+    private ActivityRecordBulkWriter bulkWriter;
+
+    @TempDir
+    Path spillDir;
+
+    private Path spillFile;
+    private ActivityWriteBehindQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        spillFile = spillDir.resolve("activity-spill.ndjson");
+        queue = new ActivityWriteBehindQueue(bulkWriter, objectMapper, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(queue, "capacity", 100);
+        ReflectionTestUtils.setField(queue, "batchSize", 500);
+        ReflectionTestUtils.setField(queue, "flushInterval", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(queue, "offerTimeout", Duration.ofMillis(20));
+        ReflectionTestUtils.setField(queue, "overflowPolicy", "spill");
+        ReflectionTestUtils.setField(queue, "spillFileLocation", spillFile.toString());
+        ReflectionTestUtils.setField(queue, "replayInterval", Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        queue.stop();
+    }
+
+    @Test
+    void queuedRecordsCompleteOnceWritten() throws Exception {
+        when(bulkWriter.write(anyList())).thenReturn(BulkWriteResult.EMPTY);
+        queue.start();
+
+        EnqueueResult result = queue.enqueue(records(3));
+
+        assertThat(result.queued()).isEqualTo(3);
+        result.written().get(2, TimeUnit.SECONDS);
+        assertThat(queue.getStats().written()).isEqualTo(3);
+    }
+
+    @Test
+    void overflowIsSpilledAndReported() throws Exception {
+        CountDownLatch release = blockFlushes(2);
+
+        EnqueueResult result = queue.enqueue(records(5));
+        release.countDown();
+
+        assertThat(result.queued()).isEqualTo(2);
+        assertThat(result.spilled()).isEqualTo(3);
+        assertThat(result.dropped()).isZero();
+        assertThatThrownBy(() -> result.written().get(2, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ActivityWriteBehindQueue.WriteBehindOverflowException.class);
+        assertThat(spilledLines()).hasSize(3);
+    }
+
+    @Test
+    void dropPolicyReportsDroppedRecords() throws Exception {
+        ReflectionTestUtils.setField(queue, "overflowPolicy", "drop");
+        CountDownLatch release = blockFlushes(2);
+
+        EnqueueResult result = queue.enqueue(records(5));
+        release.countDown();
+
+        assertThat(result.queued()).isEqualTo(2);
+        assertThat(result.dropped()).isEqualTo(3);
+        assertThat(result.written()).isCompletedExceptionally();
+        assertThat(queue.getStats().dropped()).isEqualTo(3);
+        assertThat(spillFile).doesNotExist();
+    }
+
+    @Test
+    void failedFlushIsSpilledAndReplayedWithoutRestart() throws Exception {
+        ReflectionTestUtils.setField(queue, "replayInterval", Duration.ofMillis(100));
+        when(bulkWriter.write(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"))
+                .thenReturn(BulkWriteResult.EMPTY);
+        queue.start();
+
+        EnqueueResult result = queue.enqueue(records(2));
+
+        assertThatThrownBy(() -> result.written().get(2, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(DataAccessResourceFailureException.class);
+        verify(bulkWriter, timeout(3000).times(2)).write(argThat(records -> records.size() == 2));
+        awaitNoSpillFiles();
+        assertThat(queue.getStats().written()).isEqualTo(2);
+    }
+
+    @Test
+    void spillFileFromAnEarlierRunIsReplayedOnStart() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (ActivityRecord record : records(2)) {
+            lines.add(objectMapper.writeValueAsString(record));
+        }
+        Files.write(spillFile, lines);
+        when(bulkWriter.write(anyList())).thenReturn(BulkWriteResult.EMPTY);
+
+        queue.start();
+
+        verify(bulkWriter, timeout(2000)).write(argThat(records -> records.size() == 2
+                && records.get(0).getEventId().equals("0")));
+        awaitNoSpillFiles();
+    }
+
+    // Starts the queue with the flusher holding one record inside a blocked write, leaving `capacity` free slots
+    private CountDownLatch blockFlushes(int capacity) throws Exception {
+        ReflectionTestUtils.setField(queue, "capacity", capacity);
+        ReflectionTestUtils.setField(queue, "batchSize", 1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bulkWriter.write(anyList())).thenAnswer(invocation -> {
+            release.await();
+            return BulkWriteResult.EMPTY;
+        });
+        queue.start();
+        queue.enqueue(records(1));
+        verify(bulkWriter, timeout(1000)).write(anyList());
+        return release;
+    }
+
+    private List<String> spilledLines() throws IOException {
+        return Files.readAllLines(spillFile).stream().filter(line -> !line.isBlank()).toList();
+    }
+
+    private void awaitNoSpillFiles() throws InterruptedException {
+        Path replaying = spillFile.resolveSibling(spillFile.getFileName() + ".replaying");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while ((Files.exists(spillFile) || Files.exists(replaying)) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(spillFile).doesNotExist();
+        assertThat(replaying).doesNotExist();
+    }
+
+    private static List<ActivityRecord> records(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    ActivityRecord record = new ActivityRecord();
+                    record.setEventId(String.valueOf(i));
+                    record.setUsername("octocat");
+                    record.setEventType("WatchEvent");
+                    record.setRepositoryName("octocat/Hello-World");
+                    record.setDescription("starred octocat/Hello-World");
+                    record.setEventTime(LocalDateTime.of(2025, 10, 1, 12, 0).plusMinutes(i));
+                    record.setFetchedAt(LocalDateTime.of(2025, 10, 1, 12, 30));
+                    return record;
+                })
+                .toList();
+    }
+
+}
@@ -0,0 +1,180 @@
+package com.github.superz97.githubactivitytracker.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GitHubRequestSchedulerTest {
+
+    private static final ClientRequest REQUEST =
+            ClientRequest.create(HttpMethod.GET, URI.create("https://api.github.com/users/octocat/events")).build();
+
+    private GitHubRequestScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new GitHubRequestScheduler();
+        ReflectionTestUtils.setField(scheduler, "reserve", 50);
+        ReflectionTestUtils.setField(scheduler, "maxRetries", 2);
+        ReflectionTestUtils.setField(scheduler, "defaultRetryAfter", Duration.ZERO);
+        ReflectionTestUtils.setField(scheduler, "maxWait", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(scheduler, "resetSpacing", Duration.ofSeconds(1));
+    }
+
+    @Test
+    void requestsAreNotDelayedAboveTheReserve() {
+        budget(500, Duration.ofMinutes(10));
+
+        assertThat(scheduler.reserveSlot()).isZero();
+        assertThat(scheduler.reserveSlot()).isZero();
+        assertThat(scheduler.getRemaining()).isEqualTo(498);
+    }
+
+    @Test
+    void requestsInsideTheReserveAreSpreadOverTheWindow() {
+        budget(10, Duration.ofSeconds(100));
+
+        Duration first = scheduler.reserveSlot();
+        Duration second = scheduler.reserveSlot();
+        Duration third = scheduler.reserveSlot();
+
+        assertThat(first).isZero();
+        assertThat(second).isBetween(Duration.ofSeconds(9), Duration.ofSeconds(10));
+        assertThat(third).isBetween(Duration.ofSeconds(20), Duration.ofSeconds(22));
+    }
+
+    @Test
+    void requestsQueuedBehindAnExhaustedLimitAreSpreadAfterTheReset() {
+        budget(0, Duration.ofSeconds(10));
+
+        List<Duration> waits = List.of(scheduler.reserveSlot(), scheduler.reserveSlot(), scheduler.reserveSlot());
+
+        assertThat(waits.get(0)).isBetween(Duration.ofSeconds(9), Duration.ofSeconds(10));
+        assertThat(waits.get(1).minus(waits.get(0))).isBetween(Duration.ofMillis(900), Duration.ofSeconds(1));
+        assertThat(waits.get(2).minus(waits.get(1))).isBetween(Duration.ofMillis(900), Duration.ofSeconds(1));
+    }
+
+    @Test
+    void slotFurtherAwayThanMaxWaitFailsFastWithoutTakingIt() {
+        ReflectionTestUtils.setField(scheduler, "maxWait", Duration.ofSeconds(5));
+        budget(0, Duration.ofMinutes(30));
+
+        assertThatThrownBy(scheduler::reserveSlot)
+                .isInstanceOf(RateLimitedException.class)
+                .hasMessageContaining("exhausted");
+        assertThat(ReflectionTestUtils.getField(scheduler, "nextSlot")).isEqualTo(Instant.EPOCH);
+    }
+
+    @Test
+    void failFastIsNotRetried() {
+        ReflectionTestUtils.setField(scheduler, "maxWait", Duration.ofSeconds(5));
+        budget(0, Duration.ofMinutes(30));
+        AtomicInteger sent = new AtomicInteger();
+
+        StepVerifier.create(scheduler.filter(REQUEST, respondWith(sent, HttpStatus.OK)))
+                .expectError(RateLimitedException.class)
+                .verify(Duration.ofSeconds(5));
+        assertThat(sent).hasValue(0);
+    }
+
+    @Test
+    void tooManyRequestsIsRetriedAfterRetryAfter() {
+        AtomicInteger sent = new AtomicInteger();
+        ExchangeFunction exchange = request -> Mono.fromSupplier(() -> sent.incrementAndGet() == 1
+                ? ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "1").build()
+                : ClientResponse.create(HttpStatus.OK).build());
+
+        StepVerifier.create(scheduler.filter(REQUEST, exchange))
+                .assertNext(response -> assertThat(response.statusCode()).isEqualTo(HttpStatus.OK))
+                .verifyComplete();
+        assertThat(sent).hasValue(2);
+        assertThat(scheduler.getRateLimitedResponses()).isEqualTo(1);
+    }
+
+    @Test
+    void forbiddenWithAnExhaustedLimitIsTreatedAsRateLimited() {
+        AtomicInteger sent = new AtomicInteger();
+        String reset = String.valueOf(Instant.now().minusSeconds(1).getEpochSecond());
+        ExchangeFunction exchange = request -> Mono.fromSupplier(() -> sent.incrementAndGet() == 1
+                ? ClientResponse.create(HttpStatus.FORBIDDEN)
+                        .header("X-RateLimit-Remaining", "0")
+                        .header("X-RateLimit-Reset", reset)
+                        .build()
+                : ClientResponse.create(HttpStatus.OK).build());
+
+        StepVerifier.create(scheduler.filter(REQUEST, exchange))
+                .assertNext(response -> assertThat(response.statusCode()).isEqualTo(HttpStatus.OK))
+                .verifyComplete();
+        assertThat(sent).hasValue(2);
+    }
+
+    @Test
+    void secondaryLimitBlocksOtherRequestsUntilRetryAfter() {
+        AtomicInteger sent = new AtomicInteger();
+        ExchangeFunction exchange = request -> Mono.fromSupplier(() -> {
+            sent.incrementAndGet();
+            return ClientResponse.create(HttpStatus.FORBIDDEN).header("Retry-After", "60").build();
+        });
+        ReflectionTestUtils.setField(scheduler, "maxRetries", 0);
+
+        StepVerifier.create(scheduler.filter(REQUEST, exchange))
+                .expectError(RateLimitedException.class)
+                .verify(Duration.ofSeconds(5));
+        assertThat(scheduler.reserveSlot()).isBetween(Duration.ofSeconds(59), Duration.ofSeconds(60));
+    }
+
+    @Test
+    void plainForbiddenIsPassedThrough() {
+        AtomicInteger sent = new AtomicInteger();
+
+        StepVerifier.create(scheduler.filter(REQUEST, respondWith(sent, HttpStatus.FORBIDDEN)))
+                .assertNext(response -> assertThat(response.statusCode()).isEqualTo(HttpStatus.FORBIDDEN))
+                .verifyComplete();
+        assertThat(sent).hasValue(1);
+        assertThat(scheduler.getRateLimitedResponses()).isZero();
+    }
+
+    @Test
+    void retriesStopAfterMaxRetries() {
+        ReflectionTestUtils.setField(scheduler, "maxRetries", 2);
+        AtomicInteger sent = new AtomicInteger();
+        ExchangeFunction exchange = request -> Mono.fromSupplier(() -> {
+            sent.incrementAndGet();
+            return ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "0").build();
+        });
+
+        StepVerifier.create(scheduler.filter(REQUEST, exchange))
+                .expectError(RateLimitedException.class)
+                .verify(Duration.ofSeconds(5));
+        assertThat(sent).hasValue(3);
+    }
+
+    private void budget(int remaining, Duration untilReset) {
+        ReflectionTestUtils.setField(scheduler, "remaining", remaining);
+        ReflectionTestUtils.setField(scheduler, "resetAt", Instant.now().plus(untilReset));
+    }
+
+    private static ExchangeFunction respondWith(AtomicInteger sent, HttpStatus status) {
+        return request -> Mono.fromSupplier(() -> {
+            sent.incrementAndGet();
+            return ClientResponse.create(status).build();
+        });
+    }
+
+}
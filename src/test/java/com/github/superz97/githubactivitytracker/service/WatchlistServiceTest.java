@@ -0,0 +1,212 @@
+package com.github.superz97.githubactivitytracker.service;
+
+import com.github.superz97.githubactivitytracker.entity.WatchedUser;
+import com.github.superz97.githubactivitytracker.repository.WatchedUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WatchlistServiceTest {
+
+    @Mock
+    private WatchedUserRepository watchedUserRepository;
+
+    @Mock
+    private ActivityService activityService;
+
+    @Mock
+    private GitHubService gitHubService;
+
+    @Mock
+    private GitHubRequestScheduler requestScheduler;
+
+    private WatchlistService watchlistService;
+
+    @BeforeEach
+    void setUp() {
+        watchlistService = new WatchlistService(watchedUserRepository, activityService, gitHubService,
+                requestScheduler, Schedulers.immediate());
+        ReflectionTestUtils.setField(watchlistService, "enabled", true);
+        ReflectionTestUtils.setField(watchlistService, "tick", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(watchlistService, "concurrency", 4);
+        ReflectionTestUtils.setField(watchlistService, "batchSize", 50);
+        ReflectionTestUtils.setField(watchlistService, "minInterval", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(watchlistService, "maxInterval", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(watchlistService, "backoffMultiplier", 2.0);
+        ReflectionTestUtils.setField(watchlistService, "requestBudget", 1000L);
+        ReflectionTestUtils.setField(watchlistService, "minRemaining", 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        watchlistService.stop();
+    }
+
+    @Test
+    void activeUserIsPolledAgainAtTheFloor() {
+        when(requestScheduler.getRemaining()).thenReturn(5000);
+        when(watchedUserRepository.findByNextPollAtLessThanEqualOrderByNextPollAt(any(), any()))
+                .thenReturn(List.of(watched("octocat", 480, 3)));
+        when(activityService.refreshActivity("octocat")).thenReturn(Mono.just(true));
+        when(gitHubService.getPollInterval("octocat")).thenReturn(Optional.empty());
+        when(watchedUserRepository.updateSchedule(any())).thenReturn(1);
+
+        watchlistService.pollDueUsers();
+
+        WatchedUser updated = savedSchedule();
+        assertThat(updated.getPollIntervalSeconds()).isEqualTo(60);
+        assertThat(updated.getQuietPolls()).isZero();
+        assertThat(updated.getLastActivityAt()).isNotNull();
+        assertThat(updated.getNextPollAt()).isBetween(LocalDateTime.now().plusSeconds(59),
+                LocalDateTime.now().plusSeconds(67));
+    }
+
+    @Test
+    void quietUserBacksOffUpToTheMaximum() {
+        when(requestScheduler.getRemaining()).thenReturn(5000);
+        when(watchedUserRepository.findByNextPollAtLessThanEqualOrderByNextPollAt(any(), any()))
+                .thenReturn(List.of(watched("quiet", 120, 1), watched("dormant", 1500, 6)));
+        when(activityService.refreshActivity(anyString())).thenReturn(Mono.just(false));
+        when(gitHubService.getPollInterval(anyString())).thenReturn(Optional.empty());
+        when(watchedUserRepository.updateSchedule(any())).thenReturn(1);
+
+        watchlistService.pollDueUsers();
+
+        ArgumentCaptor<WatchedUser> saved = ArgumentCaptor.forClass(WatchedUser.class);
+        verify(watchedUserRepository, times(2)).updateSchedule(saved.capture());
+        assertThat(saved.getAllValues())
+                .extracting(WatchedUser::getUsername, WatchedUser::getPollIntervalSeconds, WatchedUser::getQuietPolls)
+                .containsExactlyInAnyOrder(
+                        tuple("quiet", 240L, 2),
+                        tuple("dormant", 1800L, 7));
+    }
+
+    @Test
+    void pollIntervalFromGitHubRaisesTheFloor() {
+        when(requestScheduler.getRemaining()).thenReturn(5000);
+        when(watchedUserRepository.findByNextPollAtLessThanEqualOrderByNextPollAt(any(), any()))
+                .thenReturn(List.of(watched("octocat", 60, 0)));
+        when(activityService.refreshActivity("octocat")).thenReturn(Mono.just(true));
+        when(gitHubService.getPollInterval("octocat")).thenReturn(Optional.of(Duration.ofSeconds(300)));
+        when(watchedUserRepository.updateSchedule(any())).thenReturn(1);
+
+        watchlistService.pollDueUsers();
+
+        assertThat(savedSchedule().getPollIntervalSeconds()).isEqualTo(300);
+    }
+
+    @Test
+    void failedPollCountsAsQuietAndIsStillRescheduled() {
+        when(requestScheduler.getRemaining()).thenReturn(5000);
+        when(watchedUserRepository.findByNextPollAtLessThanEqualOrderByNextPollAt(any(), any()))
+                .thenReturn(List.of(watched("octocat", 60, 0)));
+        when(activityService.refreshActivity("octocat")).thenReturn(Mono.error(new IllegalStateException("boom")));
+        when(gitHubService.getPollInterval("octocat")).thenReturn(Optional.empty());
+        when(watchedUserRepository.updateSchedule(any())).thenReturn(1);
+
+        watchlistService.pollDueUsers();
+
+        assertThat(savedSchedule().getPollIntervalSeconds()).isEqualTo(120);
+        assertThat(watchlistService.getStats().failedPolls()).isEqualTo(1);
+    }
+
+    @Test
+    void userUnwatchedDuringThePollIsNotSavedAgain() {
+        when(requestScheduler.getRemaining()).thenReturn(5000);
+        when(watchedUserRepository.findByNextPollAtLessThanEqualOrderByNextPollAt(any(), any()))
+                .thenReturn(List.of(watched("octocat", 60, 0)));
+        when(activityService.refreshActivity("octocat")).thenReturn(Mono.just(true));
+        when(gitHubService.getPollInterval("octocat")).thenReturn(Optional.empty());
+        when(watchedUserRepository.updateSchedule(any())).thenReturn(0);
+
+        watchlistService.pollDueUsers();
+
+        verify(watchedUserRepository, never()).save(any());
+    }
+
+    @Test
+    void tickIsSkippedWhileTheRateLimitIsLow() {
+        when(requestScheduler.getRemaining()).thenReturn(150);
+
+        watchlistService.pollDueUsers();
+
+        verifyNoInteractions(watchedUserRepository, activityService);
+        assertThat(watchlistService.getStats().skippedTicks()).isEqualTo(1);
+    }
+
+    @Test
+    void batchIsCappedByWhatIsLeftOfTheBudget() {
+        ReflectionTestUtils.setField(watchlistService, "requestBudget", 10L);
+        when(requestScheduler.getRemaining()).thenReturn(5000);
+        when(requestScheduler.getRequestsSent()).thenReturn(0L, 8L);
+        when(watchedUserRepository.findByNextPollAtLessThanEqualOrderByNextPollAt(any(), any()))
+                .thenReturn(List.of(watched("octocat", 60, 0)), List.of());
+        when(activityService.refreshActivity("octocat")).thenReturn(Mono.just(true));
+        when(gitHubService.getPollInterval("octocat")).thenReturn(Optional.empty());
+        when(watchedUserRepository.updateSchedule(any())).thenReturn(1);
+
+        watchlistService.pollDueUsers();
+        watchlistService.pollDueUsers();
+
+        verify(watchedUserRepository).findByNextPollAtLessThanEqualOrderByNextPollAt(any(), eq(Limit.of(10)));
+        verify(watchedUserRepository).findByNextPollAtLessThanEqualOrderByNextPollAt(any(), eq(Limit.of(2)));
+        assertThat(watchlistService.getStats().requestsSpent()).isEqualTo(8);
+    }
+
+    @Test
+    void ticksRunOnTheWatchlistThread() throws Exception {
+        CompletableFuture<String> tickThread = new CompletableFuture<>();
+        when(requestScheduler.getRemaining()).thenAnswer(invocation -> {
+            tickThread.complete(Thread.currentThread().getName());
+            return 0;
+        });
+
+        watchlistService.start();
+
+        assertThat(tickThread.get(5, TimeUnit.SECONDS)).isEqualTo("watchlist-poller");
+    }
+
+    private WatchedUser savedSchedule() {
+        ArgumentCaptor<WatchedUser> saved = ArgumentCaptor.forClass(WatchedUser.class);
+        verify(watchedUserRepository).updateSchedule(saved.capture());
+        return saved.getValue();
+    }
+
+    private static WatchedUser watched(String username, long intervalSeconds, int quietPolls) {
+        WatchedUser user = new WatchedUser();
+        user.setUsername(username);
+        user.setAddedAt(LocalDateTime.now().minusDays(1));
+        user.setNextPollAt(LocalDateTime.now());
+        user.setPollIntervalSeconds(intervalSeconds);
+        user.setQuietPolls(quietPolls);
+        return user;
+    }
+
+}